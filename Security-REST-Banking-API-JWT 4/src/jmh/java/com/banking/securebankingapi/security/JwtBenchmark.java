@@ -0,0 +1,91 @@
+package com.banking.securebankingapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost: signing at login, and the work JwtFilter does for every authenticated request,
+ * both with a cold token (full signature verification) and a token already in TokenAuthenticationCache.
+ * The denylist holds no database here; tokens that are not revoked never reach it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtil jwtUtil;
+    private JwtFilter uncachedFilter;
+    private JwtFilter cachedFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private String token;
+    private TokenDenylist denylist;
+    private String unrevokedJti;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "your_jwt_secret_key_here_change_me");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 43_200_000L);
+        ReflectionTestUtils.setField(jwtUtil, "algorithm", "HS256");
+        ReflectionTestUtils.setField(jwtUtil, "keyId", "primary");
+        ReflectionTestUtils.setField(jwtUtil, "retiredKeys", "");
+        jwtUtil.init();
+
+        denylist = new TokenDenylist(null, null, new SimpleMeterRegistry(), 100_000, 0.01);
+        unrevokedJti = UUID.randomUUID().toString();
+        uncachedFilter = new JwtFilter(jwtUtil, new TokenAuthenticationCache(0), denylist, new SimpleMeterRegistry());
+        cachedFilter = new JwtFilter(jwtUtil, new TokenAuthenticationCache(10_000), denylist, new SimpleMeterRegistry());
+
+        token = jwtUtil.generateToken("bench-user", List.of("ROLE_USER"), 1L, 1L);
+        request = new MockHttpServletRequest("GET", "/api/account/balance");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        cachedFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench-user", List.of("ROLE_USER"), 1L, 1L);
+    }
+
+    @Benchmark
+    public Authentication filterVerifyToken() throws Exception {
+        uncachedFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return takeAuthentication();
+    }
+
+    @Benchmark
+    public Authentication filterCachedToken() throws Exception {
+        cachedFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return takeAuthentication();
+    }
+
+    @Benchmark
+    public boolean denylistProbe() {
+        return denylist.isRevoked(unrevokedJti);
+    }
+
+    private static Authentication takeAuthentication() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        if (auth == null) {
+            throw new IllegalStateException("Token was rejected");
+        }
+        return auth;
+    }
+}
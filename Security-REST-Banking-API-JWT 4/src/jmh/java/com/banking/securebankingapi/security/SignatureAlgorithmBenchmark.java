@@ -0,0 +1,55 @@
+package com.banking.securebankingapi.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of signing (once per login or refresh) and verifying (once per uncached request in JwtFilter)
+ * an access token with each algorithm JwtUtil supports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SignatureAlgorithmBenchmark {
+
+    @Param({"HS256", "HS512", "ES256"})
+    private String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "your_jwt_secret_key_here_change_me".repeat(2));
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "algorithm", algorithm);
+        ReflectionTestUtils.setField(jwtUtil, "keyId", "bench");
+        ReflectionTestUtils.setField(jwtUtil, "retiredKeys", "");
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        ReflectionTestUtils.setField(jwtUtil, "ecPrivateKey", Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()));
+        ReflectionTestUtils.setField(jwtUtil, "ecPublicKey", Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+        jwtUtil.init();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken("bench-user", List.of("ROLE_USER"), 1L, 1L);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtUtil.getClaims(token);
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.Account;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money movement through AccountService against the embedded H2 database of the test profile,
+ * without HTTP or security in front: one deposit or one transfer per operation.
+ * Run with more threads (-t 8) to include row-lock contention between accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class AccountServiceBenchmark {
+
+    private static final int ACCOUNTS = 64;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private final Long[] accountIds = new Long[ACCOUNTS];
+    private final String[] usernames = new String[ACCOUNTS];
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(SecureBankingApiApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        accountService = context.getBean(AccountService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            User user = new User();
+            user.setUsername("bench-" + i);
+            user.setPassword("x");
+            user.setRole("ROLE_USER");
+            Account account = new Account();
+            account.setUser(userRepository.save(user));
+            account.setBalance(1_000_000_00L);
+            accountIds[i] = accountRepository.save(account).getId();
+            usernames[i] = user.getUsername();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void deposit() {
+        accountService.deposit(accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)], 100);
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ACCOUNTS);
+        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        accountService.transfer(accountIds[from], usernames[to], 1);
+    }
+
+    @Benchmark
+    public long getBalance() {
+        return accountService.getBalance(accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)]);
+    }
+}
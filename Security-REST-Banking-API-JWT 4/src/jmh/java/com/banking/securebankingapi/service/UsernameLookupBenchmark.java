@@ -0,0 +1,104 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.repository.AccountRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipient lookups against a user table of 1M+ rows in the embedded H2 database:
+ *   findExisting     : account id of an existing username (login and transfer path)
+ *   findMissing      : the same query for a username that does not exist
+ *   transferToMissing: AccountService.transfer to a nonexistent recipient, rejected by the username filter
+ * indexed=false drops the unique username index first, which is how the table looked before.
+ * Run with: mvn -Pjmh -DskipTests verify -Djmh.args="-f 1 UsernameLookupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UsernameLookupBenchmark {
+
+    private static final int SEED_BATCH = 10_000;
+
+    @Param("1000000")
+    private int users;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private AccountService accountService;
+    private Long payerAccountId;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws InterruptedException {
+        context = new SpringApplicationBuilder(SecureBankingApiApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "banking.usernames.filter.enabled=true", "banking.usernames.refresh-interval-ms=3600000")
+                .run();
+        accountRepository = context.getBean(AccountRepository.class);
+        accountService = context.getBean(AccountService.class);
+        UsernameFilter usernameFilter = context.getBean(UsernameFilter.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // The first load of the (still empty) table runs in the background; let it finish before seeding
+        while (usernameFilter.mightExist("never-registered-" + UUID.randomUUID())) {
+            Thread.sleep(10);
+        }
+
+        // Plain JDBC batches: registering a million users through bcrypt would take hours
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < users; i++) {
+            batch.add(new Object[]{"user-" + i});
+            if (batch.size() == SEED_BATCH || i == users - 1) {
+                jdbcTemplate.batchUpdate("insert into user (username, password, role) values (?, 'x', 'ROLE_USER')", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.update("insert into account (balance, user_id, version) select 1000000, id, 0 from user");
+        if (!indexed) {
+            jdbcTemplate.execute("alter table user drop constraint uk_user_username");
+        }
+        jdbcTemplate.execute("analyze");
+        usernameFilter.rebuild();
+        payerAccountId = accountRepository.findIdByUsername("user-0").orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long findExisting() {
+        return accountRepository.findIdByUsername("user-" + ThreadLocalRandom.current().nextInt(users)).orElseThrow();
+    }
+
+    @Benchmark
+    public boolean findMissing() {
+        return accountRepository.findIdByUsername("nobody-" + ThreadLocalRandom.current().nextInt(users)).isPresent();
+    }
+
+    @Benchmark
+    public String transferToMissing() {
+        try {
+            accountService.transfer(payerAccountId, "nobody-" + ThreadLocalRandom.current().nextInt(users), 1);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+        throw new IllegalStateException("Transfer to a nonexistent recipient succeeded");
+    }
+}
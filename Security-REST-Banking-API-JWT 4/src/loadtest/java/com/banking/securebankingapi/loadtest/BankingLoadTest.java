@@ -0,0 +1,388 @@
+package com.banking.securebankingapi.loadtest;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.dto.UserCredentials;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.security.JwtUtil;
+import com.banking.securebankingapi.service.AccountService;
+import com.banking.securebankingapi.service.UserService;
+import com.banking.securebankingapi.util.Money;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Finds the throughput ceiling of the API: boots the application against the embedded H2 database of
+ * the test profile, registers the users through UserService, then sends a weighted mix of login,
+ * balance, deposit, withdraw and transfer requests at a fixed rate and reports throughput and latency
+ * percentiles per endpoint.
+ *
+ * Requests are scheduled open-loop: request i is due at start + i / rate whether or not earlier
+ * requests have returned, and its latency is measured from that due time. A stalled server therefore
+ * shows up as queueing delay in the percentiles instead of silently lowering the request rate
+ * (coordinated omission).
+ *
+ * Afterwards the money is checked: the sum of all balances must equal deposits minus withdrawals in the
+ * transaction log, and the seeded funds plus the deposits minus the withdrawals the server confirmed.
+ *
+ * Arguments (key=value): users=200 rate=200 duration=60 warmup=10 (seconds) balance=1000.00
+ * mix=login:2,balance:48,deposit:20,withdraw:10,transfer:20 max-in-flight=2000
+ */
+public class BankingLoadTest {
+
+    private static final String PASSWORD = "secret";
+    private static final long DEPOSIT_CENTS = 100;
+    private static final long WITHDRAW_CENTS = 50;
+    private static final long TRANSFER_CENTS = 25;
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    enum Operation {
+        LOGIN, BALANCE, DEPOSIT, WITHDRAW, TRANSFER
+    }
+
+    // Outcomes of one operation; latencies only for requests due after the warm-up
+    static final class Stats {
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+        final LongAdder measured = new LongAdder();
+        final LongAdder measuredSucceeded = new LongAdder();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder failed = new LongAdder(); // No response: the outcome is unknown
+        final LongAdder dropped = new LongAdder(); // Not sent, too many requests in flight
+    }
+
+    private final Map<String, String> options;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private String baseUrl;
+    private String[] usernames;
+    private String[] tokens;
+
+    BankingLoadTest(Map<String, String> options) {
+        this.options = options;
+        for (String entry : option("mix", "login:2,balance:48,deposit:20,withdraw:10,transfer:20").split(",")) {
+            String[] weight = entry.split(":");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Arguments are key=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator).replaceFirst("^--", ""), arg.substring(separator + 1));
+        }
+        System.exit(new BankingLoadTest(options).run() ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        // Tokens are issued once while seeding and must outlive it, the run and the final drain
+        long tokenLifetimeMs = TimeUnit.SECONDS.toMillis(Long.parseLong(option("warmup", "10"))
+                + Long.parseLong(option("duration", "60"))) + TimeUnit.HOURS.toMillis(1);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SecureBankingApiApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "management.server.port=0", "logging.level.root=WARN",
+                        // Pools still parked at shutdown are reported as leaks, with a stack trace each
+                        "logging.level.org.apache.catalina.loader=ERROR",
+                        // Every user is registered through UserService, so the filter sees them all
+                        "banking.usernames.filter.enabled=true",
+                        // The test profile leaves it off; under load it runs as in production
+                        "banking.outbox.relay.enabled=true",
+                        "jwt.expiration=" + tokenLifetimeMs)
+                .run();
+        try {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api";
+            long[] accountIds = seed(context);
+            long seededCents = accountIds.length * fromDecimal(option("balance", "1000.00"));
+
+            drive();
+
+            List<String> report = report();
+            report.addAll(checkMoney(context, accountIds, seededCents));
+            report.forEach(System.out::println);
+            Files.write(Path.of("target", "loadtest-report.txt"), report);
+            return report.stream().noneMatch(line -> line.startsWith("FAILED"));
+        } finally {
+            context.close();
+        }
+    }
+
+    // Registration hashes every password with bcrypt, so it runs on all cores
+    private long[] seed(ConfigurableApplicationContext context) throws Exception {
+        UserService userService = context.getBean(UserService.class);
+        AccountService accountService = context.getBean(AccountService.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        int users = Integer.parseInt(option("users", "200"));
+        if (users < 2) {
+            throw new IllegalArgumentException("users must be at least 2, transfers need a recipient");
+        }
+        long balanceCents = fromDecimal(option("balance", "1000.00"));
+
+        usernames = new String[users];
+        tokens = new String[users];
+        long[] accountIds = new long[users];
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> registrations = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                int index = i;
+                registrations.add(pool.submit(() -> {
+                    User user = new User();
+                    user.setUsername("load-" + index);
+                    user.setPassword(PASSWORD);
+                    userService.register(user);
+                    UserCredentials credentials = userService.findCredentials(user.getUsername());
+                    accountService.deposit(credentials.accountId(), balanceCents);
+                    usernames[index] = credentials.username();
+                    accountIds[index] = credentials.accountId();
+                    // Issued directly rather than through one bcrypt login per user
+                    tokens[index] = jwtUtil.generateToken(credentials.username(), List.of(credentials.role()),
+                            credentials.userId(), credentials.accountId());
+                }));
+            }
+            for (Future<?> registration : registrations) {
+                registration.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf("Registered %d users with %s each%n", users, option("balance", "1000.00"));
+        return accountIds;
+    }
+
+    // Open loop: request i is due at start + i * period and its latency counts from then
+    private void drive() throws InterruptedException {
+        double rate = Double.parseDouble(option("rate", "200"));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("warmup", "10")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("duration", "60")));
+        int maxInFlight = Integer.parseInt(option("max-in-flight", "2000"));
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        Operation[] wheel = wheel();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        System.out.printf("Sending %.0f requests/s for %d s (+%d s warm-up), mix %s%n",
+                rate, TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos), mix);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        for (long i = 0; ; i++) {
+            long due = start + i * periodNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = wheel[random.nextInt(wheel.length)];
+            Stats outcome = stats.get(operation);
+            boolean measured = due >= measureFrom;
+            if (measured) {
+                outcome.measured.increment();
+            }
+            if (inFlight.get() >= maxInFlight) {
+                outcome.dropped.increment();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(request(operation, random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+                        if (error != null) {
+                            outcome.failed.increment();
+                        } else if (response.statusCode() < 300) {
+                            outcome.succeeded.increment();
+                            if (measured) {
+                                outcome.measuredSucceeded.increment();
+                            }
+                        } else if (response.statusCode() < 500) {
+                            outcome.clientErrors.increment();
+                        } else {
+                            outcome.serverErrors.increment();
+                        }
+                        if (measured) {
+                            outcome.latencyMicros.recordValue(Math.min(latencyMicros, HIGHEST_LATENCY_MICROS));
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        // Requests still running count towards latency and money alike
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    // One slot per unit of weight, so a uniform pick follows the mix
+    private Operation[] wheel() {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("mix has no operation with a positive weight");
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        int user = random.nextInt(usernames.length);
+        return switch (operation) {
+            case LOGIN -> post("/auth/login", null,
+                    "{\"username\":\"" + usernames[user] + "\",\"password\":\"" + PASSWORD + "\"}");
+            case BALANCE -> HttpRequest.newBuilder(URI.create(baseUrl + "/account/balance"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + tokens[user])
+                    .GET()
+                    .build();
+            case DEPOSIT -> post("/account/deposit", tokens[user], "{\"amount\":" + toDecimal(DEPOSIT_CENTS) + "}");
+            case WITHDRAW -> post("/account/withdraw", tokens[user], "{\"amount\":" + toDecimal(WITHDRAW_CENTS) + "}");
+            case TRANSFER -> {
+                int recipient = (user + 1 + random.nextInt(usernames.length - 1)) % usernames.length;
+                yield post("/account/transfer", tokens[user],
+                        "{\"toUsername\":\"" + usernames[recipient] + "\",\"amount\":" + toDecimal(TRANSFER_CENTS) + "}");
+            }
+        };
+    }
+
+    private HttpRequest post(String path, String token, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private List<String> report() {
+        double seconds = Long.parseLong(option("duration", "60"));
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%n=== %s, measured over %.1f s ===", options.isEmpty() ? "defaults" : options, seconds));
+        lines.add(String.format("%-9s %9s %9s %8s %8s %8s %8s %8s %8s %6s %6s %6s %7s",
+                "endpoint", "requests", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "mean ms",
+                "4xx", "5xx", "error", "dropped"));
+        Stats total = new Stats();
+        for (Operation operation : Operation.values()) {
+            Stats outcome = stats.get(operation);
+            lines.add(row(operation.name().toLowerCase(), outcome, seconds));
+            total.latencyMicros.add(outcome.latencyMicros);
+            total.measured.add(outcome.measured.sum());
+            total.measuredSucceeded.add(outcome.measuredSucceeded.sum());
+            total.clientErrors.add(outcome.clientErrors.sum());
+            total.serverErrors.add(outcome.serverErrors.sum());
+            total.failed.add(outcome.failed.sum());
+            total.dropped.add(outcome.dropped.sum());
+        }
+        lines.add(row("all", total, seconds));
+        return lines;
+    }
+
+    // Error counts cover the warm-up too, latencies and throughput only the measured window
+    private static String row(String name, Stats outcome, double seconds) {
+        Histogram latency = outcome.latencyMicros;
+        return String.format("%-9s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f %6d %6d %6d %7d",
+                name, outcome.measured.sum(), outcome.measuredSucceeded.sum() / seconds,
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()), latency.getMean() / 1000, outcome.clientErrors.sum(),
+                outcome.serverErrors.sum(), outcome.failed.sum(), outcome.dropped.sum());
+    }
+
+    private List<String> checkMoney(ConfigurableApplicationContext context, long[] accountIds, long seededCents) {
+        AccountService accountService = context.getBean(AccountService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<String> lines = new ArrayList<>();
+
+        long balances = 0;
+        int negative = 0;
+        for (long accountId : accountIds) {
+            long balance = accountService.getBalance(accountId);
+            balances += balance;
+            if (balance < 0) {
+                negative++;
+            }
+        }
+        Map<String, Long> logged = new LinkedHashMap<>();
+        jdbcTemplate.query("select type, sum(amount) from transaction group by type",
+                row -> {
+                    logged.put(row.getString(1), row.getLong(2));
+                });
+        long netLogged = logged.getOrDefault("DEPOSIT", 0L) - logged.getOrDefault("WITHDRAW", 0L);
+
+        lines.add(String.format("Money: balances %s, deposits minus withdrawals in the transaction log %s",
+                toDecimal(balances), toDecimal(netLogged)));
+        lines.add(balances == netLogged ? "OK     balances match the transaction log"
+                : "FAILED balances differ from the transaction log by " + toDecimal(balances - netLogged));
+        lines.add(negative == 0 ? "OK     no negative balance" : "FAILED " + negative + " accounts with a negative balance");
+
+        // What the client saw confirmed; unknown outcomes (no response) make it a range instead
+        long confirmed = seededCents + stats.get(Operation.DEPOSIT).succeeded.sum() * DEPOSIT_CENTS
+                - stats.get(Operation.WITHDRAW).succeeded.sum() * WITHDRAW_CENTS;
+        long unknownDeposits = stats.get(Operation.DEPOSIT).failed.sum() * DEPOSIT_CENTS;
+        long unknownWithdrawals = stats.get(Operation.WITHDRAW).failed.sum() * WITHDRAW_CENTS;
+        if (balances >= confirmed - unknownWithdrawals && balances <= confirmed + unknownDeposits) {
+            lines.add("OK     balances match the seeded funds plus confirmed deposits minus confirmed withdrawals ("
+                    + toDecimal(confirmed) + (unknownDeposits + unknownWithdrawals > 0 ? ", requests without response allow "
+                    + toDecimal(confirmed - unknownWithdrawals) + " to " + toDecimal(confirmed + unknownDeposits) : "") + ")");
+        } else {
+            lines.add("FAILED balances " + toDecimal(balances) + ", but the confirmed operations add up to " + toDecimal(confirmed));
+        }
+        return lines;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static long fromDecimal(String amount) {
+        return Money.fromDecimal(new BigDecimal(amount));
+    }
+
+    private static String toDecimal(long cents) {
+        return Money.toDecimal(cents).toPlainString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
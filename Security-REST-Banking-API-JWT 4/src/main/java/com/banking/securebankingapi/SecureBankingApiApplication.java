@@ -2,10 +2,17 @@ package com.banking.securebankingapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SecureBankingApiApplication {
     public static void main(String[] args) {
-        SpringApplication.run(SecureBankingApiApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(SecureBankingApiApplication.class, args);
+        // CDS training run (startup Maven profile): stop once started so the JVM writes its class archive
+        if (Boolean.getBoolean("banking.cds.training")) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.banking.securebankingapi.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process, size-bounded LRU cache of account balances.
+ *
+ * Every entry carries the account row version it was read or written at, and an entry is only
+ * ever replaced by a newer version. Writers publish the new balance after their transaction
+ * commits, so rolled-back changes never reach the cache, and late or reordered updates cannot
+ * overwrite a newer balance. The map is split into independently locked LRU segments.
+ *
+ * Another node's writes only reach this cache through a {@link BalanceInvalidationChannel}.
+ * Without one the cache stays empty, unless banking.balance-cache.single-instance declares that
+ * no other node writes balances.
+ */
+@Component
+public class BalanceCache implements MeterBinder {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final BalanceInvalidationChannel channel;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BalanceCache(@Value("${banking.balance-cache.max-size:100000}") int maxSize,
+                        @Value("${banking.balance-cache.single-instance:false}") boolean singleInstance,
+                        ObjectProvider<BalanceInvalidationChannel> channel) {
+        this.channel = channel.getIfAvailable();
+        boolean enabled = this.channel != null || singleInstance;
+        int perSegment = !enabled || maxSize <= 0 ? 0 : Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        if (this.channel != null) {
+            this.channel.subscribe((accountId, version) -> segment(accountId).invalidate(accountId, version));
+        }
+    }
+
+    /**
+     * @return the cached balance, or null on a miss
+     */
+    public Long get(long accountId) {
+        Long balance = segment(accountId).get(accountId);
+        (balance == null ? misses : hits).increment();
+        return balance;
+    }
+
+    /**
+     * Store a balance read from the database, unless a newer version is already known.
+     */
+    public void put(long accountId, long balance, long version) {
+        segment(accountId).put(accountId, balance, version);
+    }
+
+    /**
+     * Record a balance written by the current transaction. It is applied (and published to
+     * other nodes) only once the transaction commits; outside a transaction it applies at once.
+     */
+    public void putAfterCommit(long accountId, long balance, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyWrite(accountId, balance, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyWrite(accountId, balance, version);
+            }
+        });
+    }
+
+    private void applyWrite(long accountId, long balance, long version) {
+        put(accountId, balance, version);
+        if (channel != null) {
+            channel.publish(accountId, version);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", "balances").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", "balances").tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", "balances").register(registry);
+        Gauge.builder("cache.size", this, BalanceCache::size)
+                .tag("cache", "balances").register(registry);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment segment(long accountId) {
+        return segments[(int) ((accountId ^ (accountId >>> 32)) & (SEGMENTS - 1))];
+    }
+
+    // balance == null marks a tombstone: "versions below this one are stale", value unknown
+    private record Entry(Long balance, long version) {
+    }
+
+    private final class Segment {
+
+        private final int maxSize;
+        private final LinkedHashMap<Long, Entry> map;
+
+        Segment(int maxSize) {
+            this.maxSize = maxSize;
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() > Segment.this.maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Long get(long accountId) {
+            Entry entry = map.get(accountId);
+            return entry == null ? null : entry.balance();
+        }
+
+        synchronized void put(long accountId, long balance, long version) {
+            if (maxSize == 0) {
+                return;
+            }
+            Entry current = map.get(accountId);
+            if (current == null || current.version() < version
+                    || (current.version() == version && current.balance() == null)) {
+                map.put(accountId, new Entry(balance, version));
+            }
+        }
+
+        synchronized void invalidate(long accountId, long version) {
+            if (maxSize == 0) {
+                return;
+            }
+            Entry current = map.get(accountId);
+            if (current == null || current.version() < version) {
+                map.put(accountId, new Entry(null, version));
+            }
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
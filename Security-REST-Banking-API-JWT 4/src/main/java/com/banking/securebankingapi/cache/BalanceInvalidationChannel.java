@@ -0,0 +1,23 @@
+package com.banking.securebankingapi.cache;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Pluggable channel that keeps balance caches on several API nodes coherent.
+ * After a committed balance change, the writing node publishes (accountId, version);
+ * every other node drops any cached balance older than that version.
+ * Declare a bean implementing this (e.g. on top of Redis pub/sub or a message broker) to enable it;
+ * without one, the cache is node-local.
+ */
+public interface BalanceInvalidationChannel {
+
+    /**
+     * Announce that an account's balance changed and now has the given version.
+     */
+    void publish(long accountId, long version);
+
+    /**
+     * Register the listener that receives (accountId, version) changes published by other nodes.
+     */
+    void subscribe(ObjLongConsumer<Long> listener);
+}
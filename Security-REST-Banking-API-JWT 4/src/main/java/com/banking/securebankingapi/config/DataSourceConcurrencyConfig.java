@@ -0,0 +1,33 @@
+package com.banking.securebankingapi.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link ConnectionLimitingDataSource}
+ * when banking.datasource.max-concurrency is set (the virtual-threads profile sets it).
+ */
+@Configuration
+@ConditionalOnProperty("banking.datasource.max-concurrency")
+public class DataSourceConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        int maxConcurrency = environment.getRequiredProperty("banking.datasource.max-concurrency", Integer.class);
+        long acquireTimeout = environment.getProperty("banking.datasource.acquire-timeout-ms", Long.class, 30_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
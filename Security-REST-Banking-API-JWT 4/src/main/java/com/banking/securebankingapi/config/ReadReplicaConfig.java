@@ -0,0 +1,95 @@
+package com.banking.securebankingapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing their JDBC URLs in banking.datasource.replica-urls.
+ *
+ * Replaces the auto-configured pool with one Hikari pool for the primary plus one per replica,
+ * all configured from spring.datasource.hikari.*, behind a {@link ReplicaRoutingDataSource}.
+ * Only the outer LazyConnectionDataSourceProxy is a bean, so JPA, JdbcTemplate and the
+ * connection limiter see a single DataSource.
+ */
+@Configuration
+@ConditionalOnExpression("!'${banking.datasource.replica-urls:}'.isBlank()")
+public class ReadReplicaConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${banking.datasource.replica-urls}") String replicaUrls,
+                                 @Value("${banking.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${banking.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${banking.datasource.read-your-writes-ms:2000}") long readYourWritesMs) {
+        HikariDataSource primary = pool(properties.initializeDataSourceBuilder().type(HikariDataSource.class).build(),
+                "primary", environment, meterRegistry);
+
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        // Whitespace-separated: JDBC URLs may themselves contain commas
+        for (String url : replicaUrls.trim().split("\\s+")) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url)
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setReadOnly(true);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, pool(replica, name, environment, meterRegistry)));
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWritesMs);
+        for (ReplicaRoutingDataSource.Replica replica : replicas) {
+            Gauge.builder("banking.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("1 while the replica serves reads, 0 while reads fall back to the primary")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Same pool settings as the auto-configured pool would get, plus Hikari's own metrics per pool
+    private HikariDataSource pool(HikariDataSource pool, String name, Environment environment, MeterRegistry meterRegistry) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricRegistry(meterRegistry);
+        pools.add(pool);
+        return pool;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.datasource.replica-health-interval-ms:5000}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas();
+        }
+    }
+
+    public ReplicaRoutingDataSource getRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
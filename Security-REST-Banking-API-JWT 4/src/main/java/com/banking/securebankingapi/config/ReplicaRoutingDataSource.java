@@ -0,0 +1,201 @@
+package com.banking.securebankingapi.config;
+
+import com.banking.securebankingapi.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions ({@code @Transactional(readOnly = true)}) to a
+ * healthy replica, round robin, and everything else to the primary.
+ *
+ * It must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a connection
+ * before the read-only flag of the new transaction is visible, and the proxy defers the real
+ * checkout to the first statement.
+ *
+ * A replica that cannot hand out a connection is marked down and the read is served by the primary;
+ * {@link #checkReplicas()} brings it back once it answers again. After a user's own write, that
+ * user's reads stay on the primary for the read-your-writes window, so they see their changes
+ * despite replication lag.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Bound to the transaction while it reads from a replica, see isReplicaRead()
+    private static final Object REPLICA_READ = new Object();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    // User id -> System.nanoTime() until which the user's reads go to the primary
+    private final ConcurrentHashMap<Long, Long> recentWriters = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long readYourWritesMillis) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+    }
+
+    /**
+     * A replica pool and its last known state.
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    /**
+     * @return true if the current transaction reads from a replica, i.e. may see slightly old data
+     */
+    public static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            return primary.getConnection();
+        }
+        Replica replica = readsOwnWrites() ? null : pickReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            markReplicaRead();
+            return connection;
+        } catch (SQLException e) {
+            replica.healthy = false;
+            log.warn("Replica {} unavailable, reading from the primary until it recovers: {}", replica.name, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    // Explicit credentials are for the primary; replicas are only reached with their pools' own
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Probe every replica; down replicas that answer are used again, unresponsive ones are skipped.
+     * Also forgets read-your-writes windows that have ended.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(2);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is {}", replica.name, healthy ? "back up" : "down");
+            }
+            replica.healthy = healthy;
+        }
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(until -> until - now <= 0);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // Round robin over the healthy replicas; null if none is
+    private Replica pickReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private boolean readsOwnWrites() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = recentWriters.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        recentWriters.remove(userId, until);
+        return false;
+    }
+
+    // The window starts now and again when the transaction commits, so a long write is covered too
+    private void rememberWriter() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || readYourWritesNanos <= 0) {
+            return; // Plain statements outside a transaction are not treated as writes
+        }
+        Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        recentWriters.put(userId, System.nanoTime() + readYourWritesNanos);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(userId, System.nanoTime() + readYourWritesNanos);
+                }
+            });
+        }
+    }
+
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+            }
+        });
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthenticatedUser user ? user.userId() : null;
+    }
+}
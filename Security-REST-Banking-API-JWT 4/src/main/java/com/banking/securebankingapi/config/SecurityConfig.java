@@ -1,6 +1,8 @@
 package com.banking.securebankingapi.config;
 
 import com.banking.securebankingapi.security.JwtFilter;
+import com.banking.securebankingapi.security.RateLimitFilter;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,9 +19,11 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtFilter jwtFilter) {
+    public SecurityConfig(JwtFilter jwtFilter, RateLimitFilter rateLimitFilter) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     // Define CORS filter to allow React frontend
@@ -43,12 +47,15 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable()) // Disable CSRF for REST API
                 .cors(cors -> {}) // Enable CORS using the CorsFilter bean
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/auth/logout", "/api/auth/revoke").authenticated() // Need the token being revoked
                         .requestMatchers("/api/auth/**").permitAll()       // Allow auth endpoints
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll() // Actuator, on the localhost-only management port
                         .requestMatchers("/api/account/**").hasRole("USER") // Protect account endpoints
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // JWT stateless
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class); // Add JWT filter
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class) // Add JWT filter
+                .addFilterAfter(rateLimitFilter, JwtFilter.class); // Limits per user need the authenticated user
 
         return http.build();
     }
@@ -1,62 +1,205 @@
 package com.banking.securebankingapi.controller;
 
-import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.dto.AccountSummary;
+import com.banking.securebankingapi.dto.AmountRequest;
+import com.banking.securebankingapi.dto.BatchTransferRequest;
+import com.banking.securebankingapi.dto.BatchTransferResult;
+import com.banking.securebankingapi.dto.ScheduledTransferRequest;
+import com.banking.securebankingapi.dto.ScheduledTransferView;
+import com.banking.securebankingapi.dto.TransactionPage;
+import com.banking.securebankingapi.dto.TransferRequest;
+import com.banking.securebankingapi.security.AuthenticatedUser;
 import com.banking.securebankingapi.service.AccountService;
-import com.banking.securebankingapi.service.UserService;
+import com.banking.securebankingapi.service.AccountSummaryService;
+import com.banking.securebankingapi.service.IdempotencyService;
+import com.banking.securebankingapi.service.ScheduledTransferService;
+import com.banking.securebankingapi.service.StatementService;
+import com.banking.securebankingapi.service.TransactionHistoryService;
+import com.banking.securebankingapi.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Map;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/account")
 @CrossOrigin(origins = "http://localhost:5173") // Allow React frontend
 public class AccountController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     @Autowired
     private AccountService accountService;
 
     @Autowired
-    private UserService userService;
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private AccountSummaryService accountSummaryService;
 
-    // Get current logged-in user
-    private User getCurrentUser() {
-        String username = (String) SecurityContextHolder.getContext()
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+
+    // Get current logged-in user (ids come from the token, no DB lookup)
+    private AuthenticatedUser getCurrentUser() {
+        return (AuthenticatedUser) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
-        return userService.findByUsername(username);
     }
 
-    // Get balance
+    // Get balance (stored in cents, returned as a decimal amount)
     @GetMapping("/balance")
-    public ResponseEntity<Double> getBalance() {
-        return ResponseEntity.ok(accountService.getBalance(getCurrentUser()));
+    public ResponseEntity<BigDecimal> getBalance() {
+        return ResponseEntity.ok(Money.toDecimal(accountService.getBalance(getCurrentUser().accountId())));
     }
 
+    // Money endpoints accept an optional Idempotency-Key header: a retry with the same key
+    // returns the first result instead of moving money again
+
     // Deposit
     @PostMapping("/deposit")
-    public ResponseEntity<String> deposit(@RequestBody Map<String, Object> body) {
-        Double amount = Double.valueOf(body.get("amount").toString());
-        accountService.deposit(getCurrentUser(), amount);
-        return ResponseEntity.ok("Deposit successful");
+    public ResponseEntity<String> deposit(@RequestBody AmountRequest request,
+                                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Long accountId = getCurrentUser().accountId();
+        return ResponseEntity.ok(idempotencyService.execute(accountId, idempotencyKey, "deposit", request, String.class, () -> {
+            accountService.deposit(accountId, Money.fromDecimal(request.amount()));
+            return "Deposit successful";
+        }));
     }
 
     // Withdraw
     @PostMapping("/withdraw")
-    public ResponseEntity<String> withdraw(@RequestBody Map<String, Object> body) {
-        Double amount = Double.valueOf(body.get("amount").toString());
-        accountService.withdraw(getCurrentUser(), amount);
-        return ResponseEntity.ok("Withdraw successful");
+    public ResponseEntity<String> withdraw(@RequestBody AmountRequest request,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Long accountId = getCurrentUser().accountId();
+        return ResponseEntity.ok(idempotencyService.execute(accountId, idempotencyKey, "withdraw", request, String.class, () -> {
+            accountService.withdraw(accountId, Money.fromDecimal(request.amount()));
+            return "Withdraw successful";
+        }));
     }
 
     // Transfer
     @PostMapping("/transfer")
-    public ResponseEntity<String> transfer(@RequestBody Map<String, Object> body) {
-        String toUsername = (String) body.get("toUsername");
-        Double amount = Double.valueOf(body.get("amount").toString());
-        accountService.transfer(getCurrentUser(), toUsername, amount);
-        return ResponseEntity.ok("Transfer successful");
+    public ResponseEntity<String> transfer(@RequestBody TransferRequest request,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Long accountId = getCurrentUser().accountId();
+        return ResponseEntity.ok(idempotencyService.execute(accountId, idempotencyKey, "transfer", request, String.class, () -> {
+            accountService.transfer(accountId, request.toUsername(), Money.fromDecimal(request.amount()));
+            return "Transfer successful";
+        }));
+    }
+
+    // Batch transfer: many transfers in one request and one DB transaction, with per-item results
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResult> transferBatch(@RequestBody BatchTransferRequest request,
+                                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Long accountId = getCurrentUser().accountId();
+        return ResponseEntity.ok(idempotencyService.execute(accountId, idempotencyKey, "transfers/batch", request,
+                BatchTransferResult.class, () -> accountService.transferBatch(accountId, request.transfers())));
+    }
+
+    // Standing order: the same transfer daily, weekly or monthly from startAt (default now) until endsAt or cancelled
+    @PostMapping("/scheduled-transfers")
+    public ResponseEntity<ScheduledTransferView> scheduleTransfer(@RequestBody ScheduledTransferRequest request) {
+        return ResponseEntity.ok(scheduledTransferService.create(getCurrentUser().accountId(), request));
+    }
+
+    // Standing orders with their next due time and the outcome of the last occurrence
+    @GetMapping("/scheduled-transfers")
+    public ResponseEntity<List<ScheduledTransferView>> getScheduledTransfers() {
+        return ResponseEntity.ok(scheduledTransferService.list(getCurrentUser().accountId()));
+    }
+
+    // Cancel a standing order; an occurrence already running completes
+    @DeleteMapping("/scheduled-transfers/{id}")
+    public ResponseEntity<Void> cancelScheduledTransfer(@PathVariable Long id) {
+        return scheduledTransferService.cancel(getCurrentUser().accountId(), id)
+                ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    // Transaction history, newest first; pass nextCursor from the previous page to continue
+    @GetMapping("/transactions")
+    public ResponseEntity<TransactionPage> getTransactions(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(transactionHistoryService.getHistory(getCurrentUser().accountId(), cursor, limit));
+    }
+
+    // Totals per day or month from the precomputed rollups (default: last 30 days / 12 months).
+    // Recent activity appears once the background aggregation has caught up, see asOf
+    @GetMapping("/summary")
+    public ResponseEntity<AccountSummary> getSummary(
+            @RequestParam(defaultValue = "day") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate lastDay = to == null ? LocalDate.now() : to;
+        LocalDate firstDay = from != null ? from
+                : "month".equalsIgnoreCase(period) ? lastDay.minusMonths(11).withDayOfMonth(1) : lastDay.minusDays(29);
+        return ResponseEntity.ok(accountSummaryService.getSummary(getCurrentUser().accountId(), period, firstDay, lastDay));
+    }
+
+    // Full statement for the days from..to (inclusive) as csv or ndjson, streamed from the database.
+    // Compressed on the fly when the client sends Accept-Encoding: gzip
+    @GetMapping("/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Long accountId = getCurrentUser().accountId();
+        LocalDate firstDay = from == null ? LocalDate.EPOCH : from;
+        LocalDate lastDay = to == null ? LocalDate.now() : to;
+        if (firstDay.isAfter(lastDay)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        StatementService.Format statementFormat;
+        try {
+            statementFormat = StatementService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be csv or ndjson");
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        // Runs on the async executor after headers are sent; rows go out as they are read
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8 * 1024)) {
+                    statementService.writeStatement(accountId, firstDay.atStartOfDay(),
+                            lastDay.plusDays(1).atStartOfDay(), statementFormat, compressed);
+                }
+            } else {
+                statementService.writeStatement(accountId, firstDay.atStartOfDay(),
+                        lastDay.plusDays(1).atStartOfDay(), statementFormat, out);
+            }
+        };
+
+        String extension = statementFormat == StatementService.Format.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(statementFormat == StatementService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + firstDay + "-" + lastDay + "." + extension + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
 
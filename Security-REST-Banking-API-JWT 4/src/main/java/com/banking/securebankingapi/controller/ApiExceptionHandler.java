@@ -0,0 +1,46 @@
+package com.banking.securebankingapi.controller;
+
+import com.banking.securebankingapi.service.IdempotencyException;
+import com.banking.securebankingapi.service.UsernameTakenException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Maps overload, infrastructure and client input exceptions to HTTP responses.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // A saturated worker pool (e.g. password hashing) → 503 so clients back off and retry
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Server busy, please retry"));
+    }
+
+    // Malformed, reused or still in-flight Idempotency-Key → 400 / 422 / 409
+    @ExceptionHandler(IdempotencyException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotency(IdempotencyException e) {
+        return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+    }
+
+    // Registration with a username that is already in use → 409
+    @ExceptionHandler(UsernameTakenException.class)
+    public ResponseEntity<Map<String, String>> handleUsernameTaken(UsernameTakenException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    // Invalid client input (bad amount, period, format, frequency or date range) → 400
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage() == null ? "Invalid request" : e.getMessage()));
+    }
+}
@@ -1,18 +1,33 @@
 package com.banking.securebankingapi.controller;
 
+import com.banking.securebankingapi.dto.UserCredentials;
 import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.security.AuthenticatedUser;
 import com.banking.securebankingapi.security.JwtUtil;
+import com.banking.securebankingapi.security.PasswordHasher;
+import com.banking.securebankingapi.security.TokenAuthenticationCache;
+import com.banking.securebankingapi.security.TokenDenylist;
+import com.banking.securebankingapi.service.RefreshTokenService;
 import com.banking.securebankingapi.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController  // Marks this class as a REST API controller
 @RequestMapping("/api/auth")  // Base URL path for authentication-related endpoints
@@ -25,41 +40,136 @@ public class AuthController {
     private JwtUtil jwtUtil; // Utility to generate & validate JWT tokens
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder; // For securely hashing & verifying passwords
+    private PasswordHasher passwordHasher; // Verifies bcrypt hashes on a bounded pool, off the request thread
+
+    @Autowired
+    private TokenDenylist tokenDenylist; // Revoked token ids
+
+    @Autowired
+    private TokenAuthenticationCache authenticationCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService; // Hashed, rotating refresh tokens
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor applicationTaskExecutor; // Runs the DB work after bcrypt, off the hashing pool
 
     /**
      * Register a new user in the system.
      *
      * @param user - User object from request body (JSON → User)
-     * @return ResponseEntity containing the saved user object
+     * @return ResponseEntity containing the saved user object, completed once hashing is done
      */
     @PostMapping("/register")
-    public ResponseEntity<User> register(@RequestBody User user) {
-        // Calls UserService to register and save the user in the DB
-        return ResponseEntity.ok(userService.register(user));
+    public CompletableFuture<ResponseEntity<User>> register(@RequestBody User user) {
+        // Calls UserService to hash (on the hashing pool) and save the user in the DB
+        return userService.registerAsync(user).thenApply(ResponseEntity::ok);
     }
 
     /**
-     * Authenticate user and return JWT token if credentials are valid.
+     * Authenticate user and return a short-lived JWT access token plus a refresh token if credentials are valid.
      *
      * @param loginUser - User object containing username and password from the request
-     * @return ResponseEntity containing a JWT token or an error message
+     * @return ResponseEntity containing the tokens or an error message, completed once bcrypt is done
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody User loginUser) {
-        // Retrieve user from DB using username
-        User user = userService.findByUsername(loginUser.getUsername());
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestBody User loginUser) {
+        // Retrieve user and account id from DB in one query
+        UserCredentials user = userService.findCredentials(loginUser.getUsername());
+        if (user == null || user.accountId() == null) {
+            return CompletableFuture.completedFuture(invalidCredentials());
+        }
 
-        // If user exists AND password matches the hashed password in DB
-        if (user != null && passwordEncoder.matches(loginUser.getPassword(), user.getPassword())) {
-            // Generate JWT token with username & role
-            String token = jwtUtil.generateToken(user.getUsername(), List.of(user.getRole()));
+        // Check the password on the hashing pool; the request thread is released meanwhile.
+        // Issuing the refresh token writes to the DB, so it continues on the application executor
+        return passwordHasher.matches(loginUser.getPassword(), user.password()).thenApplyAsync(matches -> {
+            if (!matches) {
+                return invalidCredentials();
+            }
 
-            // Return token as JSON → { "token": "xxxxxx" }
-            return ResponseEntity.ok(Map.of("token", token));
+            // Return tokens as JSON → { "token": "xxxxxx", "refreshToken": "yyyyyy" }
+            return tokens(user, refreshTokenService.issue(user.userId()));
+        }, applicationTaskExecutor);
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * The presented refresh token is used up; presenting it again revokes the whole login.
+     *
+     * @param request - { "refreshToken": "yyyyyy" }
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody Map<String, String> request) {
+        String refreshToken = request.get("refreshToken");
+        RefreshTokenService.Rotation rotation = refreshToken == null ? null : refreshTokenService.rotate(refreshToken);
+        UserCredentials user = rotation == null ? null : userService.findCredentials(rotation.userId());
+        if (user == null || user.accountId() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid refresh token"));
         }
+        return tokens(user, rotation.refreshToken());
+    }
+
+    // Generate JWT token with username, role and the ids account endpoints need
+    private ResponseEntity<Map<String, String>> tokens(UserCredentials user, String refreshToken) {
+        String token = jwtUtil.generateToken(user.username(), List.of(user.role()), user.userId(), user.accountId());
+        return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
+    }
+
+    /**
+     * Revoke the bearer token of this request; it is rejected from now on, even before it expires.
+     * A refresh token in the body ({ "refreshToken": "yyyyyy" }) is revoked together with all its rotations.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String header,
+                                                      @RequestBody(required = false) Map<String, String> request) {
+        if (request != null && request.get("refreshToken") != null) {
+            refreshTokenService.revoke(request.get("refreshToken"));
+        }
+        String token = header.substring(7); // Authenticated by JwtFilter, so "Bearer " is present
+        return revoke(token, jwtUtil.getClaims(token), "Logged out");
+    }
+
+    /**
+     * Revoke another token of the current user, e.g. one issued to a lost device.
+     *
+     * @param request - { "token": "xxxxxx" }
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Map<String, String>> revokeToken(@AuthenticationPrincipal AuthenticatedUser currentUser,
+                                                           @RequestBody Map<String, String> request) {
+        String token = request.get("token");
+        if (token == null || token.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Token is required"));
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.getClaims(token);
+        } catch (ExpiredJwtException e) {
+            return ResponseEntity.ok(Map.of("message", "Token already expired"));
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        Number userId = claims.get(JwtUtil.USER_ID_CLAIM, Number.class);
+        if (userId == null || userId.longValue() != currentUser.userId()) {
+            return ResponseEntity.status(403).body(Map.of("error", "Token belongs to another user"));
+        }
+        return revoke(token, claims, "Token revoked");
+    }
+
+    private ResponseEntity<Map<String, String>> revoke(String token, Claims claims, String message) {
+        if (claims.getId() == null) {
+            // Issued before tokens carried an id; it can only run out
+            return ResponseEntity.badRequest().body(Map.of("error", "Token has no id and cannot be revoked"));
+        }
+        Number userId = claims.get(JwtUtil.USER_ID_CLAIM, Number.class);
+        tokenDenylist.revoke(claims.getId(), userId == null ? null : userId.longValue(), claims.getExpiration());
+        authenticationCache.invalidate(token);
+        return ResponseEntity.ok(Map.of("message", message));
+    }
 
-        // If authentication fails, return HTTP 401 Unauthorized
+    // If authentication fails, return HTTP 401 Unauthorized
+    private static ResponseEntity<Map<String, String>> invalidCredentials() {
         return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
     }
 }
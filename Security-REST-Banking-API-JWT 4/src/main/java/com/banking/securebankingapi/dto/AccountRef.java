@@ -0,0 +1,7 @@
+package com.banking.securebankingapi.dto;
+
+/**
+ * Account id paired with its owner's username, resolved without loading entities.
+ */
+public record AccountRef(Long id, String username) {
+}
@@ -0,0 +1,11 @@
+package com.banking.securebankingapi.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response of GET /api/account/summary: buckets with activity, oldest first.
+ * asOf is the aggregation watermark; transactions after it are not included yet.
+ */
+public record AccountSummary(String period, LocalDateTime asOf, List<SummaryBucket> buckets) {
+}
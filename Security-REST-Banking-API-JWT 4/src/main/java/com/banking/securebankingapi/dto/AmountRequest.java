@@ -0,0 +1,10 @@
+package com.banking.securebankingapi.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Request body for deposit and withdraw → { "amount": 12.34 }
+ * The amount is parsed as an exact decimal, never as a double.
+ */
+public record AmountRequest(BigDecimal amount) {
+}
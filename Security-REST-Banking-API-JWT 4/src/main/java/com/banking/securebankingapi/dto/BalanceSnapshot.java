@@ -0,0 +1,8 @@
+package com.banking.securebankingapi.dto;
+
+/**
+ * Balance of an account together with the row version it was read at.
+ * The version grows with every balance change, so newer snapshots can be told from older ones.
+ */
+public record BalanceSnapshot(Long accountId, long balance, long version) {
+}
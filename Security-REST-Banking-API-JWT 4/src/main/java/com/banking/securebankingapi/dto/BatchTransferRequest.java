@@ -0,0 +1,9 @@
+package com.banking.securebankingapi.dto;
+
+import java.util.List;
+
+/**
+ * Request body for batch transfers → { "transfers": [ { "toUsername": "bob", "amount": 12.34 }, ... ] }
+ */
+public record BatchTransferRequest(List<TransferRequest> transfers) {
+}
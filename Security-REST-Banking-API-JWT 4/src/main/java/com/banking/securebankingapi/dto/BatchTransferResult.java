@@ -0,0 +1,17 @@
+package com.banking.securebankingapi.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch transfer; results are in request order.
+ */
+public record BatchTransferResult(int succeeded, int failed, List<Item> results) {
+
+    /**
+     * @param index position of the transfer in the request
+     * @param success whether this transfer was applied
+     * @param error failure reason, null on success
+     */
+    public record Item(int index, String toUsername, boolean success, String error) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.banking.securebankingapi.dto;
+
+/**
+ * Sum and count of one kind of movement (DEPOSIT, WITHDRAW, TRANSFER sent, RECEIVED)
+ * for one account within an aggregation window.
+ */
+public record RollupDelta(Long accountId, String kind, Long amount, Long count) {
+}
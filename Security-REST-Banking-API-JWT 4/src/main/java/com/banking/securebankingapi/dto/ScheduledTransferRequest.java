@@ -0,0 +1,16 @@
+package com.banking.securebankingapi.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Request body for a standing order →
+ * { "toUsername": "landlord", "amount": 950.00, "frequency": "MONTHLY", "startAt": "2024-06-01T08:00:00" }
+ * startAt defaults to now; endsAt is optional.
+ */
+public record ScheduledTransferRequest(String toUsername,
+                                       BigDecimal amount,
+                                       String frequency,
+                                       LocalDateTime startAt,
+                                       LocalDateTime endsAt) {
+}
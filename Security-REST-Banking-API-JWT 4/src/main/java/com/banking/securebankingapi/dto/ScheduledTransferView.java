@@ -0,0 +1,20 @@
+package com.banking.securebankingapi.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A standing order as returned by the API; nextRunAt is null once it has finished.
+ */
+public record ScheduledTransferView(Long id,
+                                    String toUsername,
+                                    BigDecimal amount,
+                                    String frequency,
+                                    LocalDateTime startAt,
+                                    LocalDateTime endsAt,
+                                    LocalDateTime nextRunAt,
+                                    long runCount,
+                                    LocalDateTime lastRunAt,
+                                    String lastStatus,
+                                    String lastError) {
+}
@@ -0,0 +1,15 @@
+package com.banking.securebankingapi.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one day or month of an account's activity.
+ */
+public record SummaryBucket(LocalDate periodStart,
+                            BigDecimal deposited,
+                            BigDecimal withdrawn,
+                            BigDecimal sent,
+                            BigDecimal received,
+                            long transactionCount) {
+}
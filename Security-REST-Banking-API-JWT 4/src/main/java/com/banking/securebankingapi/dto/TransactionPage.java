@@ -0,0 +1,10 @@
+package com.banking.securebankingapi.dto;
+
+import java.util.List;
+
+/**
+ * One page of transaction history → { "items": [...], "nextCursor": "..." }
+ * nextCursor is null on the last page.
+ */
+public record TransactionPage(List<TransactionView> items, String nextCursor) {
+}
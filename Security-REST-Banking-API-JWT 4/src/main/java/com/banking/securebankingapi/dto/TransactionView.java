@@ -0,0 +1,26 @@
+package com.banking.securebankingapi.dto;
+
+import com.banking.securebankingapi.util.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a Transaction row for history pages.
+ * Built directly by the query, so no Account/User entities are loaded.
+ */
+public record TransactionView(Long id,
+                              String type,
+                              @JsonIgnore long amountCents,
+                              LocalDateTime timestamp,
+                              Long fromAccountId,
+                              Long toAccountId) {
+
+    // Amounts are returned as decimals like the balance endpoint
+    @JsonProperty("amount")
+    public BigDecimal amount() {
+        return Money.toDecimal(amountCents);
+    }
+}
@@ -0,0 +1,9 @@
+package com.banking.securebankingapi.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Request body for transfer → { "toUsername": "bob", "amount": 12.34 }
+ */
+public record TransferRequest(String toUsername, BigDecimal amount) {
+}
@@ -0,0 +1,8 @@
+package com.banking.securebankingapi.dto;
+
+/**
+ * Everything login needs about a user, loaded with a single query.
+ * accountId is null if the user has no account.
+ */
+public record UserCredentials(Long userId, String username, String password, String role, Long accountId) {
+}
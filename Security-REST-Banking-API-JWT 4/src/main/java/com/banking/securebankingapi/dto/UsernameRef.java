@@ -0,0 +1,7 @@
+package com.banking.securebankingapi.dto;
+
+/**
+ * User id paired with the username, used to page through all usernames without loading entities.
+ */
+public record UsernameRef(Long id, String username) {
+}
@@ -2,6 +2,8 @@ package com.banking.securebankingapi.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
@@ -9,7 +11,11 @@ public class Account {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY) // Money operations work on account ids and never need the owner
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
-    private double balance;
-}
\ No newline at end of file
+    private long balance; // Minor units (cents), see Money
+    @Version
+    private long version; // Bumped on every balance change; orders cached balances
+}
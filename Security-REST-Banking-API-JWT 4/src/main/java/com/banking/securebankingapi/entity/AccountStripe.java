@@ -0,0 +1,22 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One sub-balance row of a hot account. Credits to a hot account land on one of its stripes
+ * instead of the account row, so concurrent credits do not queue on a single row lock.
+ * The account's balance is Account.balance plus the sum of its stripes.
+ */
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_account_stripe", columnNames = {"account_id", "stripe"}))
+public class AccountStripe {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    private int stripe; // 0 .. stripes-1
+    private long balance; // Minor units (cents), never negative: stripes only receive credits
+}
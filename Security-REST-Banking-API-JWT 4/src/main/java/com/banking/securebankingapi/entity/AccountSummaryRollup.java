@@ -0,0 +1,35 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Precomputed totals of one account for one day or one month, kept up to date
+ * incrementally by AccountSummaryService. Summary requests read only these rows.
+ */
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_summary_account_period",
+        columnNames = {"account_id", "period", "period_start"}))
+public class AccountSummaryRollup {
+    public static final String DAY = "D";
+    public static final String MONTH = "M";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    @Column(nullable = false, length = 1)
+    private String period; // DAY or MONTH
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart; // The day itself, or the first day of the month
+    // Minor units (cents), see Money
+    private long deposited;
+    private long withdrawn;
+    private long sent;
+    private long received;
+    private long transactionCount;
+}
@@ -0,0 +1,21 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a background aggregation has consumed the transaction history:
+ * every transaction with timestamp before the watermark is already included.
+ */
+@Entity
+@Data
+public class AggregationCheckpoint {
+    @Id
+    private String name;
+    @Column(nullable = false)
+    private LocalDateTime watermark;
+    @Version
+    private Long version; // Two instances cannot both advance the same window
+}
@@ -0,0 +1,34 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a money operation submitted with an Idempotency-Key header.
+ * The row is inserted before the operation runs and completed in the same transaction,
+ * so a key can only ever be applied once, even across application instances.
+ */
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_account_key",
+                columnNames = {"account_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "account_id", nullable = false)
+    private Long accountId; // Keys are scoped per account, so clients cannot collide with each other
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of operation + request body; a reused key must match it
+    @Lob
+    @Column(length = 16_777_215) // MEDIUMTEXT on MySQL; a batch transfer result outgrows TEXT
+    private String responseBody; // JSON of the result returned to the first request
+    private LocalDateTime createdAt;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,32 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One side of a double-entry posting in the append-only ledger (ledger mode only).
+ * Every Transaction posts exactly two entries whose amounts sum to zero.
+ * Rows are only ever inserted, never updated.
+ */
+@Entity
+@Data
+@Table(indexes = {
+        // Balance = snapshot + entries of the account created since the snapshot
+        @Index(name = "idx_ledger_entry_account_created", columnList = "account_id, created_at"),
+        // Compactor finds accounts with new entries in a time window
+        @Index(name = "idx_ledger_entry_created", columnList = "created_at")
+})
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entry_seq")
+    @SequenceGenerator(name = "ledger_entry_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "account_id", nullable = false)
+    private Long accountId; // Plain id, no association: 0 is the external-funds account
+    private Long transactionId;
+    private long amount; // Signed minor units: positive = credit, negative = debit
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
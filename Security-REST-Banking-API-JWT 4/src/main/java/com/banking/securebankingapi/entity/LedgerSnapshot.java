@@ -0,0 +1,22 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compacted balance of an account: the sum of all its ledger entries created before upTo.
+ * Written only by the ledger compactor.
+ */
+@Entity
+@Data
+public class LedgerSnapshot {
+    @Id
+    private Long accountId;
+    private long balance; // Minor units (cents)
+    @Column(nullable = false)
+    private LocalDateTime upTo;
+    @Version
+    private Long version; // Guards against two compactors advancing the same snapshot
+}
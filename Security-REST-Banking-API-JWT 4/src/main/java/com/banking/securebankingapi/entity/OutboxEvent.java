@@ -0,0 +1,29 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A money movement waiting to be published to downstream systems.
+ * Written in the same database transaction as the Transaction it describes and deleted once
+ * the relay has handed it to the sink, see {@link com.banking.securebankingapi.outbox.OutboxRelay}.
+ */
+@Entity
+@Data
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Assigned at insert, so ids follow insert order
+    private Long id;
+    @Column(nullable = false)
+    private Long transactionId;
+    @Column(nullable = false)
+    private String type; // DEPOSIT, WITHDRAW, TRANSFER
+    private long amount; // Minor units (cents), see Money
+    @Column(nullable = false)
+    private Long fromAccountId;
+    private Long toAccountId;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * The row the outbox relay locks while it publishes a batch, so only one instance relays at a
+ * time. It also records when the last delivered money movement happened.
+ */
+@Entity
+@Data
+public class OutboxRelayLock {
+    @Id
+    private String name;
+    @Column(nullable = false)
+    private LocalDateTime lastDelivered;
+}
@@ -0,0 +1,34 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token, stored as a SHA-256 hash only. Each use rotates it: the row is marked used
+ * and a successor is issued in the same family. Presenting a used token again means it was
+ * copied, and the whole family is revoked.
+ */
+@Entity
+@Data
+@Table(indexes = {
+        @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash; // Hex SHA-256 of the token; the token itself is never stored
+    @Column(nullable = false)
+    private Long userId;
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId; // Shared by all rotations of one login
+    private LocalDateTime createdAt;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    private LocalDateTime usedAt; // Set when rotated
+    private LocalDateTime revokedAt; // Set on logout or reuse detection
+}
@@ -0,0 +1,27 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A JWT that must no longer be accepted, identified by its "jti" claim.
+ * Kept until the token would have expired anyway.
+ */
+@Entity
+@Data
+@Table(indexes = {
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+})
+public class RevokedToken {
+    @Id
+    @Column(length = 36)
+    private String jti;
+    private Long userId;
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,45 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A standing order: the same transfer repeated daily, weekly or monthly from startAt until endsAt.
+ * Occurrence n is due at startAt plus n intervals, so monthly orders keep their day of month.
+ * The runner executes due occurrences partition by partition, see
+ * {@link com.banking.securebankingapi.service.ScheduledTransferRunner}.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_scheduled_transfer_due", columnList = "partition_no, next_run_at"),
+        @Index(name = "idx_scheduled_transfer_account", columnList = "from_account_id")
+})
+@Data
+public class ScheduledTransfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "from_account_id", nullable = false)
+    private Long fromAccountId;
+    @Column(nullable = false)
+    private String toUsername;
+    private long amount; // Minor units (cents), see Money
+    @Column(nullable = false)
+    private String frequency; // DAILY, WEEKLY, MONTHLY
+    @Column(nullable = false)
+    private LocalDateTime startAt;
+    private LocalDateTime endsAt; // Null: until cancelled
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt; // Null once the last occurrence has run
+    private long runCount; // Occurrences executed or skipped so far; guards against running one twice
+    // Derived from fromAccountId, so all orders of an account run one after another
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+    private LocalDateTime lastRunAt;
+    private String lastStatus; // COMPLETED or FAILED
+    private String lastError;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
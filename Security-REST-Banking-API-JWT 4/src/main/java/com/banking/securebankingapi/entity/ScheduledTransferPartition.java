@@ -0,0 +1,20 @@
+package com.banking.securebankingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One slice of the standing orders (by sender account). A runner leases a partition while it
+ * executes the partition's due orders, so an account's orders never run on two workers at once.
+ * A lease left behind by a crashed instance simply expires.
+ */
+@Entity
+@Data
+public class ScheduledTransferPartition {
+    @Id
+    private Integer id;
+    private String owner; // Runner holding the lease
+    private LocalDateTime leaseUntil;
+}
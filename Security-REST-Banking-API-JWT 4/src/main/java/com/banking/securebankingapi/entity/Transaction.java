@@ -2,20 +2,34 @@ package com.banking.securebankingapi.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@Table(indexes = {
+        // Keyset pagination of an account's history walks these indexes newest first
+        @Index(name = "idx_transaction_from_account_ts_id", columnList = "from_account_id, timestamp, id"),
+        @Index(name = "idx_transaction_to_account_ts_id", columnList = "to_account_id, timestamp, id"),
+        // The summary aggregation tails the history by time
+        @Index(name = "idx_transaction_timestamp", columnList = "timestamp")
+})
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", allocationSize = 50) // Pooled ids keep JDBC insert batching enabled
     private Long id;
     private String type;  // DEPOSIT, WITHDRAW, TRANSFER
-    private double amount;
-    @ManyToOne
+    private long amount; // Minor units (cents), see Money
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Account fromAccount;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Account toAccount;
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+}
@@ -3,7 +3,11 @@ package com.banking.securebankingapi.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_user_username", columnNames = "username"),
+        indexes = @Index(name = "idx_user_created_at", columnList = "created_at"))
 @Data
 public class User {
     @Id
@@ -13,5 +17,9 @@ public class User {
     private String password;  // Hashed
     private String role;  // e.g., "ROLE_USER"
 
+    // Registration time; other instances pick up new usernames by it, see UsernameFilter
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
 
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.banking.securebankingapi.outbox;
+
+import com.banking.securebankingapi.entity.OutboxEvent;
+import com.banking.securebankingapi.entity.OutboxRelayLock;
+import com.banking.securebankingapi.repository.OutboxEventRepository;
+import com.banking.securebankingapi.repository.OutboxRelayLockRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves outbox events to the {@link OutboxSink} in batches, oldest first.
+ *
+ * Each batch is one database transaction: lock the relay's {@link OutboxRelayLock} row, read the oldest
+ * events, publish them, delete them. The lock makes one instance the publisher at a time, so
+ * events leave in id order (which is per-account order, see {@link OutboxWriter}). A crash or
+ * failure between publishing and commit leaves the events in place and they are published
+ * again: delivery is at-least-once, consumers deduplicate by transactionId.
+ *
+ * The relay runs on its own thread, so a slow sink holds up nothing but the relay. The sink
+ * paces it: the next batch is read only once the previous one was accepted, and after a failure
+ * the relay backs off exponentially up to banking.outbox.relay.max-backoff-ms.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String LOCK = "outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long intervalMs;
+    private final long maxBackoffMs;
+    private final ScheduledExecutorService executor;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishTimer;
+    private final Timer deliveryTimer;
+    // Age of the oldest event not yet delivered, as of the last batch read
+    private final AtomicLong lagMs = new AtomicLong();
+    private int consecutiveFailures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxRelayLockRepository lockRepository,
+                       TransactionTemplate transactionTemplate,
+                       ObjectProvider<OutboxSink> sink,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${banking.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${banking.outbox.file:outbox-events.ndjson}") String file,
+                       @Value("${banking.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${banking.outbox.relay.interval-ms:500}") long intervalMs,
+                       @Value("${banking.outbox.relay.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink.getIfAvailable(() -> new FileOutboxSink(Path.of(file), objectMapper));
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.intervalMs = Math.max(1, intervalMs);
+        this.maxBackoffMs = Math.max(this.intervalMs, maxBackoffMs);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.published = Counter.builder("banking.outbox.published")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("banking.outbox.publish.failures")
+                .description("Outbox batches the sink did not accept")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("banking.outbox.publish")
+                .description("Time the sink took to accept a batch")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("banking.outbox.delivery")
+                .description("Time from a money movement to its event being delivered")
+                .register(meterRegistry);
+        TimeGauge.builder("banking.outbox.lag", lagMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest outbox event not yet delivered")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.schedule(this::relay, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void relay() {
+        long delay = intervalMs;
+        try {
+            drain();
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            consecutiveFailures++;
+            delay = Math.min(maxBackoffMs, intervalMs << Math.min(consecutiveFailures, 20));
+            log.warn("Outbox relay failed {} time(s) in a row, retrying in {} ms", consecutiveFailures, delay, e);
+        }
+        if (!executor.isShutdown()) {
+            executor.schedule(this::relay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publish pending events batch by batch until a batch comes back short.
+     * @return number of events published
+     */
+    public synchronized int drain() {
+        int total = 0;
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> publishBatch());
+            total += count;
+        } while (count == batchSize && !executor.isShutdown());
+        return total;
+    }
+
+    private int publishBatch() {
+        OutboxRelayLock lock = lockRepository.findForUpdate(LOCK).orElseGet(() -> {
+            // First run ever; a concurrent first run on another instance fails on the primary key and retries
+            OutboxRelayLock fresh = new OutboxRelayLock();
+            fresh.setName(LOCK);
+            fresh.setLastDelivered(LocalDateTime.now());
+            return lockRepository.saveAndFlush(fresh);
+        });
+        List<OutboxEvent> events = outboxEventRepository.findNext(PageRequest.of(0, batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        if (events.isEmpty()) {
+            lagMs.set(0);
+            return 0;
+        }
+        lagMs.set(Math.max(0, Duration.between(events.get(0).getCreatedAt(), now).toMillis()));
+
+        long start = System.nanoTime();
+        try {
+            sink.publish(events);
+        } catch (Exception e) {
+            failures.increment();
+            throw new IllegalStateException("Outbox sink rejected a batch of " + events.size() + " events", e);
+        }
+        publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        lock.setLastDelivered(events.get(events.size() - 1).getCreatedAt());
+        LocalDateTime delivered = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            deliveryTimer.record(Duration.between(event.getCreatedAt(), delivered));
+        }
+        published.increment(events.size());
+        if (events.size() < batchSize) {
+            lagMs.set(0); // Nothing else was pending when the batch was read
+        }
+        return events.size();
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException, InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        if (sink instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.banking.securebankingapi.outbox;
+
+import com.banking.securebankingapi.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Pluggable destination of outbox events (message broker, notification or fraud service, ...).
+ * Declare a bean implementing this to replace the default {@link FileOutboxSink}.
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver a batch of events, in order. Return only once the destination has accepted all of
+     * them; throw to have the whole batch retried later. A batch may be delivered more than once.
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
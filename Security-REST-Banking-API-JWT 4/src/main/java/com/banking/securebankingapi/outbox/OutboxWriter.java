@@ -0,0 +1,52 @@
+package com.banking.securebankingapi.outbox;
+
+import com.banking.securebankingapi.entity.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Records outbox events for money movements, inside the transaction that performs them:
+ * an event exists if and only if its movement committed.
+ *
+ * Call it after the transaction has locked the accounts involved. Event ids are assigned by the
+ * database at insert, so two movements of one account get ids in the order they took its lock,
+ * and the relay, which publishes in id order, delivers them in that order. Credits that take only
+ * a shared lock (ledger deposits, hot accounts) commute, so their relative order carries no meaning.
+ * Rows are inserted with plain JDBC batching: Hibernate cannot batch inserts of identity ids.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT = "insert into outbox_event"
+            + " (transaction_id, type, amount, from_account_id, to_account_id, created_at)"
+            + " values (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queue one event per transaction; the transactions must already have ids (i.e. be saved).
+     */
+    public void append(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, transactions, transactions.size(), (ps, tx) -> {
+            ps.setLong(1, tx.getId());
+            ps.setString(2, tx.getType());
+            ps.setLong(3, tx.getAmount());
+            ps.setLong(4, tx.getFromAccount().getId());
+            if (tx.getToAccount() != null) {
+                ps.setLong(5, tx.getToAccount().getId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setTimestamp(6, Timestamp.valueOf(tx.getTimestamp()));
+        });
+    }
+}
@@ -1,8 +1,18 @@
 package com.banking.securebankingapi.repository;
 
+import com.banking.securebankingapi.dto.AccountRef;
+import com.banking.securebankingapi.dto.BalanceSnapshot;
 import com.banking.securebankingapi.entity.Account;
 import com.banking.securebankingapi.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,4 +27,81 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      * @return Optional<Account> — account found or empty if none exists
      */
     Optional<Account> findByUser(User user);
+
+    /**
+     * Find an account by its owner's username in a single join query.
+     * @param username the owner's username
+     * @return Optional<Account> — account found or empty if none exists
+     */
+    Optional<Account> findByUserUsername(String username);
+
+    /**
+     * Resolve the account id of a user by username without loading the account.
+     * @param username the owner's username
+     * @return Optional<Long> — account id or empty if no such user/account
+     */
+    @Query("select a.id from Account a where a.user.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /**
+     * Resolve the account ids of many usernames in one query.
+     * @param usernames owners' usernames
+     * @return one AccountRef per username that has an account
+     */
+    @Query("select new com.banking.securebankingapi.dto.AccountRef(a.id, u.username) from Account a join a.user u where u.username in :usernames")
+    List<AccountRef> findRefsByUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Load and row-lock (SELECT ... FOR UPDATE) several accounts in one query.
+     * Rows are locked in ascending id order, the same order single transfers use.
+     * @param ids account ids
+     * @return the accounts found, ordered by id
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Take a shared lock (SELECT ... FOR SHARE) on an account row: the lock a foreign key check
+     * from a row referencing it takes, taken earlier so it comes before other locks.
+     * @param id the account id
+     * @return the account, or empty if it does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForShare(@Param("id") Long id);
+
+    /**
+     * Read only the balance and version columns by primary key.
+     * @param id the account id
+     * @return Optional<BalanceSnapshot> — balance in cents or empty if the account does not exist
+     */
+    @Query("select new com.banking.securebankingapi.dto.BalanceSnapshot(a.id, a.balance, a.version) from Account a where a.id = :id")
+    Optional<BalanceSnapshot> findBalanceById(@Param("id") Long id);
+
+    /**
+     * Read balance and version of several accounts by primary key.
+     * @param ids account ids
+     * @return one BalanceSnapshot per existing account
+     */
+    @Query("select new com.banking.securebankingapi.dto.BalanceSnapshot(a.id, a.balance, a.version) from Account a where a.id in :ids")
+    List<BalanceSnapshot> findBalancesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Atomically add to a balance and bump its version. The row stays locked until the transaction ends.
+     * @return number of rows updated — 0 if the account does not exist
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 where a.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * Atomically subtract from a balance (bumping its version) only if it stays non-negative.
+     * The row stays locked until the transaction ends.
+     * @return number of rows updated — 0 if the account does not exist or funds are insufficient
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1"
+            + " where a.id = :id and a.balance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") long amount);
 }
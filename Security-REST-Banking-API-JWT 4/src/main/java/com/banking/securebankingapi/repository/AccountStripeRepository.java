@@ -0,0 +1,53 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.AccountStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for AccountStripe entity (hot-account mode).
+ */
+public interface AccountStripeRepository extends JpaRepository<AccountStripe, Long> {
+
+    /**
+     * Atomically add to one stripe. Only that stripe row is locked until the transaction ends.
+     * @return number of rows updated — 0 if the stripe does not exist
+     */
+    @Modifying
+    @Query("update AccountStripe s set s.balance = s.balance + :amount where s.accountId = :accountId and s.stripe = :stripe")
+    int credit(@Param("accountId") Long accountId, @Param("stripe") int stripe, @Param("amount") long amount);
+
+    /**
+     * Load and row-lock all stripes of an account, in stripe order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountStripe s where s.accountId = :accountId order by s.stripe")
+    List<AccountStripe> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Account row plus all stripes, read in one statement so a concurrent sweep is never half-seen.
+     * @return Optional<Long> — total balance in cents or empty if the account does not exist
+     */
+    @Query("select a.balance + coalesce((select sum(s.balance) from AccountStripe s where s.accountId = a.id), 0)"
+            + " from Account a where a.id = :accountId")
+    Optional<Long> findStripedBalance(@Param("accountId") Long accountId);
+
+    /**
+     * Number of stripes per hot account, as (accountId, count) pairs.
+     */
+    @Query("select s.accountId, count(s) from AccountStripe s group by s.accountId")
+    List<Object[]> countStripesByAccount();
+
+    long countByAccountId(Long accountId);
+
+    @Modifying
+    @Query("delete from AccountStripe s where s.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
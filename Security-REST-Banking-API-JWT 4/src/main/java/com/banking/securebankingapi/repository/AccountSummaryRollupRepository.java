@@ -0,0 +1,35 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.AccountSummaryRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for AccountSummaryRollup entity.
+ */
+public interface AccountSummaryRollupRepository extends JpaRepository<AccountSummaryRollup, Long> {
+
+    /**
+     * Rollups of one account and period type in [from, to], oldest first. Served by the unique key.
+     */
+    @Query("select r from AccountSummaryRollup r where r.accountId = :accountId and r.period = :period"
+            + " and r.periodStart >= :from and r.periodStart <= :to order by r.periodStart")
+    List<AccountSummaryRollup> findRange(@Param("accountId") Long accountId,
+                                         @Param("period") String period,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+
+    /**
+     * Existing rollups of several accounts for one period.
+     */
+    @Query("select r from AccountSummaryRollup r where r.accountId in :accountIds and r.period = :period"
+            + " and r.periodStart = :periodStart")
+    List<AccountSummaryRollup> findForAccounts(@Param("accountIds") Collection<Long> accountIds,
+                                               @Param("period") String period,
+                                               @Param("periodStart") LocalDate periodStart);
+}
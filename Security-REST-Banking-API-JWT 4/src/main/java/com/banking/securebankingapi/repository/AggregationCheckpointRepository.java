@@ -0,0 +1,10 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.AggregationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for AggregationCheckpoint entity.
+ */
+public interface AggregationCheckpointRepository extends JpaRepository<AggregationCheckpoint, String> {
+}
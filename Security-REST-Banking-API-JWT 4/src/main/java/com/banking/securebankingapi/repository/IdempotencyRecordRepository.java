@@ -0,0 +1,35 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for IdempotencyRecord entity.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByAccountIdAndIdempotencyKey(Long accountId, String idempotencyKey);
+
+    /**
+     * Delete every record past its TTL in one statement.
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Delete one key's record if it has expired, immediately rather than at flush.
+     * @return number of rows deleted — 0 if the key was renewed meanwhile
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.accountId = :accountId and r.idempotencyKey = :key"
+            + " and r.expiresAt <= :now")
+    int deleteExpiredKey(@Param("accountId") Long accountId, @Param("key") String key, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,42 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for LedgerEntry entity (append-only ledger mode).
+ */
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Sum of an account's entries created at or after the given instant.
+     */
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.accountId = :accountId and e.createdAt >= :from")
+    long sumSince(@Param("accountId") Long accountId, @Param("from") LocalDateTime from);
+
+    /**
+     * Sum of an account's entries created in [from, to).
+     */
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e"
+            + " where e.accountId = :accountId and e.createdAt >= :from and e.createdAt < :to")
+    long sumBetween(@Param("accountId") Long accountId,
+                    @Param("from") LocalDateTime from,
+                    @Param("to") LocalDateTime to);
+
+    /**
+     * Accounts that received entries in [from, to).
+     */
+    @Query("select distinct e.accountId from LedgerEntry e where e.createdAt >= :from and e.createdAt < :to")
+    List<Long> findAccountIdsWithEntriesBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Sum of every entry; always 0 in a consistent double-entry ledger.
+     */
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e")
+    long sumAll();
+}
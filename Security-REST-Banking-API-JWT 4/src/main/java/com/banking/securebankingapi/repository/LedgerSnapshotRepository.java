@@ -0,0 +1,10 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for LedgerSnapshot entity (append-only ledger mode).
+ */
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+}
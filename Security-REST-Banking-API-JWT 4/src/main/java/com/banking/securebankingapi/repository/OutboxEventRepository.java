@@ -0,0 +1,20 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest pending events, in insert order.
+     */
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findNext(Pageable page);
+}
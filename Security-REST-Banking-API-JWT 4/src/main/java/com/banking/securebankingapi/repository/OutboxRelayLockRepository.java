@@ -0,0 +1,23 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.OutboxRelayLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for OutboxRelayLock entity.
+ */
+public interface OutboxRelayLockRepository extends JpaRepository<OutboxRelayLock, String> {
+
+    /**
+     * Load and row-lock the relay's lock, so that only one instance at a time publishes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from OutboxRelayLock l where l.name = :name")
+    Optional<OutboxRelayLock> findForUpdate(@Param("name") String name);
+}
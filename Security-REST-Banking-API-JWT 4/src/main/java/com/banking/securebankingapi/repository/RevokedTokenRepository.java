@@ -0,0 +1,43 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for RevokedToken entity.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Ids of revoked tokens that have not expired yet, to fill the in-memory filter.
+     */
+    @Query("select r.jti from RevokedToken r where r.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    /**
+     * Exact check behind a filter hit. A declared query, unlike the inherited existsById, runs
+     * outside a read-only transaction and so on the primary, where a revocation is visible at once.
+     */
+    @Query("select count(r) > 0 from RevokedToken r where r.jti = :jti")
+    boolean isRevoked(@Param("jti") String jti);
+
+    /**
+     * Ids revoked since the given instant, e.g. by other instances.
+     */
+    @Query("select r.jti from RevokedToken r where r.revokedAt >= :since and r.expiresAt > :now")
+    List<String> findJtisRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete every entry whose token has expired in one statement.
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,41 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.ScheduledTransferPartition;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ScheduledTransferPartition entity.
+ */
+public interface ScheduledTransferPartitionRepository extends JpaRepository<ScheduledTransferPartition, Integer> {
+
+    /**
+     * Partitions nobody holds that have at least one due order; one index probe per partition.
+     */
+    @Query("select p.id from ScheduledTransferPartition p where (p.leaseUntil is null or p.leaseUntil < :now)"
+            + " and exists (select s.id from ScheduledTransfer s where s.partitionNo = p.id and s.nextRunAt <= :now)")
+    List<Integer> findFreeWithDueWork(@Param("now") LocalDateTime now);
+
+    /**
+     * Row-lock a partition unless another runner is claiming it right now: SELECT ... FOR UPDATE SKIP LOCKED
+     * (lock timeout -2). Databases without SKIP LOCKED, like H2, wait for the lock instead.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select p from ScheduledTransferPartition p where p.id = :id")
+    Optional<ScheduledTransferPartition> findForClaim(@Param("id") Integer id);
+
+    @Modifying
+    @Query("update ScheduledTransferPartition p set p.owner = null, p.leaseUntil = null where p.id = :id and p.owner = :owner")
+    int release(@Param("id") Integer id, @Param("owner") String owner);
+}
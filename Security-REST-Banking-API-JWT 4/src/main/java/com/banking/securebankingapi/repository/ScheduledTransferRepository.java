@@ -0,0 +1,41 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.entity.ScheduledTransfer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for ScheduledTransfer entity.
+ */
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    /**
+     * Due orders of one partition, earliest first, on the (partition_no, next_run_at) index.
+     */
+    @Query("select s from ScheduledTransfer s where s.partitionNo = :partition and s.nextRunAt <= :now"
+            + " order by s.nextRunAt, s.id")
+    List<ScheduledTransfer> findDue(@Param("partition") int partition, @Param("now") LocalDateTime now, Pageable page);
+
+    /**
+     * Move an order past the occurrence it was at. Matches nothing if that occurrence was already
+     * executed or skipped (or the order was cancelled), which makes running an occurrence idempotent.
+     * @return 1 if this call advanced the order, 0 otherwise
+     */
+    @Modifying
+    @Query("update ScheduledTransfer s set s.runCount = s.runCount + 1, s.nextRunAt = :nextRunAt, s.lastRunAt = :ranAt,"
+            + " s.lastStatus = :status, s.lastError = :error where s.id = :id and s.runCount = :runCount")
+    int advance(@Param("id") Long id, @Param("runCount") long runCount, @Param("nextRunAt") LocalDateTime nextRunAt,
+                @Param("ranAt") LocalDateTime ranAt, @Param("status") String status, @Param("error") String error);
+
+    List<ScheduledTransfer> findByFromAccountIdOrderById(Long fromAccountId);
+
+    @Modifying
+    @Query("delete from ScheduledTransfer s where s.id = :id and s.fromAccountId = :fromAccountId")
+    int deleteByIdAndFromAccountId(@Param("id") Long id, @Param("fromAccountId") Long fromAccountId);
+}
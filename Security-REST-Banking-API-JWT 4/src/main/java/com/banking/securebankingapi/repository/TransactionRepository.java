@@ -1,12 +1,82 @@
 package com.banking.securebankingapi.repository;
 
+import com.banking.securebankingapi.dto.RollupDelta;
+import com.banking.securebankingapi.dto.TransactionView;
 import com.banking.securebankingapi.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Transaction entity.
  * Extends JpaRepository to provide CRUD operations and pagination for Transaction objects.
  */
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    // No custom methods yet — inherits save, findById, findAll, delete, etc. from JpaRepository
+
+    /**
+     * Per source account and type (DEPOSIT, WITHDRAW, TRANSFER) totals of a time window.
+     * Served by the timestamp index.
+     */
+    @Query("select new com.banking.securebankingapi.dto.RollupDelta(t.fromAccount.id, t.type, sum(t.amount), count(t))"
+            + " from Transaction t where t.timestamp >= :from and t.timestamp < :to"
+            + " group by t.fromAccount.id, t.type")
+    List<RollupDelta> sumBySourceBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Per recipient totals of transfers in a time window.
+     */
+    @Query("select new com.banking.securebankingapi.dto.RollupDelta(t.toAccount.id, 'RECEIVED', sum(t.amount), count(t))"
+            + " from Transaction t where t.timestamp >= :from and t.timestamp < :to and t.type = 'TRANSFER'"
+            + " group by t.toAccount.id")
+    List<RollupDelta> sumReceivedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Timestamp of the oldest transaction; where a backfill starts.
+     */
+    @Query("select min(t.timestamp) from Transaction t")
+    Optional<LocalDateTime> findOldestTimestamp();
+
+    String VIEW = "select new com.banking.securebankingapi.dto.TransactionView("
+            + "t.id, t.type, t.amount, t.timestamp, t.fromAccount.id, t.toAccount.id) from Transaction t ";
+
+    /**
+     * Newest transactions where the account is the source (deposits, withdrawals, sent transfers).
+     * Served by the (from_account_id, timestamp, id) index; only the page size is read.
+     */
+    @Query(VIEW + "where t.fromAccount.id = :accountId order by t.timestamp desc, t.id desc")
+    List<TransactionView> findLatestFrom(@Param("accountId") Long accountId, Pageable page);
+
+    /**
+     * Next page of source-side transactions strictly older than the cursor (timestamp, id).
+     */
+    @Query(VIEW + "where t.fromAccount.id = :accountId"
+            + " and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))"
+            + " order by t.timestamp desc, t.id desc")
+    List<TransactionView> findFromBefore(@Param("accountId") Long accountId,
+                                         @Param("timestamp") LocalDateTime timestamp,
+                                         @Param("id") Long id,
+                                         Pageable page);
+
+    /**
+     * Newest transfers received by the account.
+     * Served by the (to_account_id, timestamp, id) index.
+     */
+    @Query(VIEW + "where t.toAccount.id = :accountId order by t.timestamp desc, t.id desc")
+    List<TransactionView> findLatestTo(@Param("accountId") Long accountId, Pageable page);
+
+    /**
+     * Next page of received transfers strictly older than the cursor (timestamp, id).
+     */
+    @Query(VIEW + "where t.toAccount.id = :accountId"
+            + " and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))"
+            + " order by t.timestamp desc, t.id desc")
+    List<TransactionView> findToBefore(@Param("accountId") Long accountId,
+                                       @Param("timestamp") LocalDateTime timestamp,
+                                       @Param("id") Long id,
+                                       Pageable page);
 }
@@ -1,9 +1,37 @@
 package com.banking.securebankingapi.repository;
 
+import com.banking.securebankingapi.dto.UserCredentials;
+import com.banking.securebankingapi.dto.UsernameRef;
 import com.banking.securebankingapi.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    boolean existsByUsername(String username);
+
+    // Username filter load: one page of usernames in id order, continuing after the given id
+    @Query("select new com.banking.securebankingapi.dto.UsernameRef(u.id, u.username) from User u where u.id > :afterId order by u.id")
+    List<UsernameRef> findUsernamesAfter(@Param("afterId") long afterId, Pageable page);
+
+    // Usernames registered since the given time, on the created_at index
+    @Query("select u.username from User u where u.createdAt >= :since")
+    List<String> findUsernamesCreatedSince(@Param("since") LocalDateTime since);
+
+    // Login lookup: user row plus account id in one query
+    @Query("select new com.banking.securebankingapi.dto.UserCredentials(u.id, u.username, u.password, u.role, a.id)"
+            + " from User u left join Account a on a.user = u where u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    // Same lookup by id, used when a refresh token is exchanged for a new access token
+    @Query("select new com.banking.securebankingapi.dto.UserCredentials(u.id, u.username, u.password, u.role, a.id)"
+            + " from User u left join Account a on a.user = u where u.id = :id")
+    Optional<UserCredentials> findCredentialsById(@Param("id") Long id);
+}
@@ -0,0 +1,16 @@
+package com.banking.securebankingapi.security;
+
+import java.security.Principal;
+
+/**
+ * Principal stored in the SecurityContext by {@link JwtFilter}.
+ * Carries the ids embedded in the token so controllers and services
+ * never have to look the user up by username.
+ */
+public record AuthenticatedUser(Long userId, Long accountId, String username) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,13 +1,13 @@
 package com.banking.securebankingapi.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,15 +16,40 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component // Makes this filter a Spring Bean so it can be injected into SecurityConfig
 public class JwtFilter extends OncePerRequestFilter {
 
-    @Value("${jwt.secret}") // Inject JWT secret key from application.properties
-    private String secret;
+    private final JwtUtil jwtUtil;
+    private final TokenAuthenticationCache authenticationCache;
+    private final TokenDenylist tokenDenylist;
+
+    // Signature verification of tokens not found in the cache, by outcome
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+    private final Counter cacheHits;
+
+    public JwtFilter(JwtUtil jwtUtil, TokenAuthenticationCache authenticationCache, TokenDenylist tokenDenylist,
+                     MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.authenticationCache = authenticationCache;
+        this.tokenDenylist = tokenDenylist;
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
+        this.cacheHits = Counter.builder("banking.jwt.cache.hits")
+                .description("Requests authenticated from the token cache without verification")
+                .register(meterRegistry);
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("banking.jwt.verification")
+                .description("JWT signature and claims verification in JwtFilter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -40,28 +65,26 @@ public class JwtFilter extends OncePerRequestFilter {
             String token = header.substring(7); // Extract token by removing "Bearer "
 
             try {
-                // ✅ Correct JJWT parsing with parserBuilder()
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))) // Secret key for verification
-                        .build()
-                        .parseClaimsJws(token) // Parse and verify the JWT
-                        .getBody(); // Extract claims (payload)
-
-                // Extract username from token
-                String username = claims.getSubject();
-
-                // Extract roles from token
-                @SuppressWarnings("unchecked")
-                List<String> roles = claims.get("roles", List.class);
-
-                // Create an Authentication object with roles
-                Authentication auth = new UsernamePasswordAuthenticationToken(
-                        username, // Principal (user identity)
-                        null, // No password here
-                        roles.stream()
-                                .map(SimpleGrantedAuthority::new) // Convert roles to Spring Security authorities
-                                .collect(Collectors.toList())
-                );
+                // Repeat calls with the same token skip signature verification entirely
+                Authentication auth = authenticationCache.get(token);
+                if (auth == null) {
+                    long start = System.nanoTime();
+                    try {
+                        auth = authenticate(token);
+                        validTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    } catch (RuntimeException e) {
+                        invalidTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        throw e;
+                    }
+                } else {
+                    cacheHits.increment();
+                }
+
+                // Revocation is checked on every request, cached or not (usually just a Bloom filter probe)
+                if (auth.getDetails() instanceof String jti && tokenDenylist.isRevoked(jti)) {
+                    authenticationCache.invalidate(token);
+                    throw new IllegalStateException("Token has been revoked");
+                }
 
                 // Store authentication in SecurityContext so Spring Security can use it
                 SecurityContextHolder.getContext().setAuthentication(auth);
@@ -75,4 +98,41 @@ public class JwtFilter extends OncePerRequestFilter {
         // Continue with the next filter
         filterChain.doFilter(request, response);
     }
+
+    // Verify the token with the shared parser and cache the result until the token expires
+    private Authentication authenticate(String token) {
+        Claims claims = jwtUtil.getClaims(token);
+
+        // Extract username and ids from token; tokens issued without ids are rejected
+        AuthenticatedUser principal = new AuthenticatedUser(
+                requireId(claims, JwtUtil.USER_ID_CLAIM),
+                requireId(claims, JwtUtil.ACCOUNT_ID_CLAIM),
+                claims.getSubject()
+        );
+
+        // Extract roles from token
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+
+        // Create an Authentication object with roles
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                principal, // Principal (user identity)
+                null, // No password here
+                roles.stream()
+                        .map(SimpleGrantedAuthority::new) // Convert roles to Spring Security authorities
+                        .collect(Collectors.toList())
+        );
+        auth.setDetails(claims.getId()); // Token id for the revocation check; null for tokens issued without one
+
+        authenticationCache.put(token, auth, claims.getExpiration());
+        return auth;
+    }
+
+    private static Long requireId(Claims claims, String name) {
+        Number id = claims.get(name, Number.class);
+        if (id == null) {
+            throw new IllegalArgumentException("Token is missing claim " + name);
+        }
+        return id.longValue();
+    }
 }
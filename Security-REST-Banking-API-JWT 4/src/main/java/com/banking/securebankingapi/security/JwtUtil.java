@@ -1,47 +1,186 @@
 package com.banking.securebankingapi.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies access tokens.
+ *
+ * The algorithm is configurable (jwt.algorithm: HS256, HS512 or ES256). Every token carries the
+ * id of its signing key in the "kid" header; verification picks the key by that id, so a new key
+ * can be rolled out while tokens signed with the previous one (listed in jwt.retired-keys) stay
+ * valid until they expire. Tokens without "kid" were issued before key ids; they are rejected
+ * unless jwt.accept-legacy-tokens is set, in which case they are checked against jwt.secret.
+ */
 @Component
 public class JwtUtil {
 
+    // Marks a retired key given as a base64 X.509 EC public key rather than an HMAC secret
+    private static final String EC_PREFIX = "ec:";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
+    @Value("${jwt.algorithm:HS256}")
+    private String algorithm;
+
+    @Value("${jwt.key-id:primary}")
+    private String keyId;
+
+    // ES256 only: base64 PKCS#8 private key and X.509 public key
+    @Value("${jwt.ec.private-key:}")
+    private String ecPrivateKey;
+
+    @Value("${jwt.ec.public-key:}")
+    private String ecPublicKey;
+
+    // Previous keys still accepted for verification: kid=secret or kid=ec:<base64 public key>, comma-separated
+    @Value("${jwt.retired-keys:}")
+    private String retiredKeys;
+
+    // Accept tokens without "kid", signed with jwt.secret; only while such tokens can still be unexpired
+    @Value("${jwt.accept-legacy-tokens:false}")
+    private boolean acceptLegacyTokens;
+
+    // Signing key and parser are immutable and thread-safe, so build them once and share them
+    private SignatureAlgorithm signatureAlgorithm;
+    private Key signingKey;
+    private Key legacyKey;
+    private Map<String, Key> verificationKeys;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        Key verificationKey;
+        switch (signatureAlgorithm) {
+            case HS256, HS384, HS512 -> {
+                signingKey = hmacKey(secret);
+                verificationKey = signingKey;
+            }
+            case ES256, ES384, ES512 -> {
+                if (ecPrivateKey.isBlank() || ecPublicKey.isBlank()) {
+                    throw new IllegalStateException("jwt.ec.private-key and jwt.ec.public-key are required for " + algorithm);
+                }
+                signingKey = ecKey(ecPrivateKey, true);
+                verificationKey = ecKey(ecPublicKey, false);
+            }
+            default -> throw new IllegalStateException("Unsupported jwt.algorithm " + algorithm);
+        }
+        signatureAlgorithm.assertValidSigningKey(signingKey); // Fail at startup, e.g. on a short HS512 secret
+
+        verificationKeys = new HashMap<>();
+        verificationKeys.put(keyId, verificationKey);
+        for (String entry : retiredKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("jwt.retired-keys entries must be kid=key");
+            }
+            String value = entry.substring(separator + 1).trim();
+            verificationKeys.put(entry.substring(0, separator).trim(), value.startsWith(EC_PREFIX)
+                    ? ecKey(value.substring(EC_PREFIX.length()), false) : hmacKey(value));
+        }
+        legacyKey = acceptLegacyTokens ? hmacKey(secret) : null;
+
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header);
+                    }
+                })
+                .build();
+    }
+
+    private Key resolveKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (legacyKey == null) {
+                throw new JwtException("Token has no signing key id");
+            }
+            return legacyKey;
+        }
+        Key key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new JwtException("Unknown signing key id " + kid);
+        }
+        // The parser also rejects a key that does not fit the header's algorithm (e.g. HS256 against an EC key)
+        return key;
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Key ecKey(String base64, boolean privateKey) {
+        try {
+            byte[] der = Base64.getDecoder().decode(base64.trim());
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            return privateKey ? factory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                    : factory.generatePublic(new X509EncodedKeySpec(der));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid EC key in JWT configuration", e);
+        }
+    }
+
+    // Claim names for the ids resolved at login
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ACCOUNT_ID_CLAIM = "aid";
+
     // Generate JWT Token
-    public String generateToken(String username, List<String> roles) {
+    public String generateToken(String username, List<String> roles, Long userId, Long accountId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", roles);
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(ACCOUNT_ID_CLAIM, accountId);
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyId) // Lets verifiers pick the key during rotation
                 .addClaims(claims) // ✅ Correct method for adding claims
                 .setSubject(username) // ✅ Correct method for setting subject
+                .setId(UUID.randomUUID().toString()) // "jti", the handle used to revoke this token
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))) // Sign token
+                .signWith(signingKey, signatureAlgorithm) // Sign token
                 .compact();
     }
 
-    // Extract claims from token
+    // Lifetime of access tokens in milliseconds
+    public long getExpiration() {
+        return expiration;
+    }
+
+    // Extract claims from token (verifies signature and expiry)
     public Claims getClaims(String token) {
-        return Jwts.parserBuilder() // ✅ Correct parser for 0.11.x
-                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     // Validate token
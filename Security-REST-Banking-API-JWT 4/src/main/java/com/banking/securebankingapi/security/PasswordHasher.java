@@ -0,0 +1,94 @@
+package com.banking.securebankingapi.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bcrypt hashing and verification on a dedicated, bounded thread pool so that
+ * login and registration bursts never occupy request threads for ~100 ms of CPU each.
+ * When all workers are busy and the queue is full, submission fails immediately with
+ * {@link RejectedExecutionException}, which the API turns into a 503.
+ */
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    // bcrypt CPU time per operation, and time spent queued for a hashing thread
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueTimer;
+
+    public PasswordHasher(BCryptPasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${banking.password-hashing.threads:0}") int threads,
+                          @Value("${banking.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        this.queueTimer = Timer.builder("banking.password.hashing.queue")
+                .description("Time a bcrypt task waited for a hashing thread")
+                .register(meterRegistry);
+
+        // Default: half the cores, so hashing can never take all CPU from account requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("banking.password.hashing.queued", executor, e -> e.getQueue().size());
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("banking.password.hashing")
+                .description("bcrypt hashing and verification time")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hash a raw password off the calling thread.
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        long queuedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            return encodeTimer.record(() -> passwordEncoder.encode(rawPassword));
+        }, executor);
+    }
+
+    /**
+     * Check a raw password against a stored bcrypt hash off the calling thread.
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        long queuedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            return matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        }, executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,132 @@
+package com.banking.securebankingapi.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limits, applied right after {@link JwtFilter} so that rejected requests never reach
+ * bcrypt or the database. /api/auth/** is limited per client address; account endpoints per
+ * authenticated user, with a tighter limit for the endpoints that move money.
+ * Over-limit requests get 429 with Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final RateLimiter authLimiter;
+    private final RateLimiter moneyLimiter;
+    private final RateLimiter accountLimiter;
+
+    private final Counter authRejections;
+    private final Counter moneyRejections;
+    private final Counter accountRejections;
+
+    public RateLimitFilter(@Value("${banking.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${banking.rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${banking.rate-limit.auth.requests-per-second:0.5}") double authRate,
+                           @Value("${banking.rate-limit.auth.burst:10}") int authBurst,
+                           @Value("${banking.rate-limit.money.requests-per-second:5}") double moneyRate,
+                           @Value("${banking.rate-limit.money.burst:10}") int moneyBurst,
+                           @Value("${banking.rate-limit.account.requests-per-second:20}") double accountRate,
+                           @Value("${banking.rate-limit.account.burst:40}") int accountBurst,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.authLimiter = new RateLimiter(authRate, authBurst, maxKeys);
+        this.moneyLimiter = new RateLimiter(moneyRate, moneyBurst, maxKeys);
+        this.accountLimiter = new RateLimiter(accountRate, accountBurst, maxKeys);
+        this.authRejections = rejectionCounter(meterRegistry, "auth");
+        this.moneyRejections = rejectionCounter(meterRegistry, "money");
+        this.accountRejections = rejectionCounter(meterRegistry, "account");
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String group) {
+        return Counter.builder("banking.rate-limit.rejections")
+                .description("Requests answered with 429 by RateLimitFilter")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        long waitNanos = 0;
+        if (!enabled) {
+            // Limits switched off
+        } else if (path.startsWith("/api/auth/")) {
+            // Before login there is no user yet; the remote address is the client
+            // (behind a proxy, set server.forward-headers-strategy so this is the real client)
+            waitNanos = authLimiter.tryAcquire(request.getRemoteAddr());
+            if (waitNanos > 0) {
+                authRejections.increment();
+            }
+        } else if (path.startsWith("/api/account/")) {
+            String client = clientKey(request);
+            if (isMoneyEndpoint(path)) {
+                waitNanos = moneyLimiter.tryAcquire(client);
+                if (waitNanos > 0) {
+                    moneyRejections.increment();
+                }
+            } else {
+                waitNanos = accountLimiter.tryAcquire(client);
+                if (waitNanos > 0) {
+                    accountRejections.increment();
+                }
+            }
+        }
+
+        if (waitNanos > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Authenticated user id if JwtFilter accepted a token, otherwise the remote address
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.userId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static boolean isMoneyEndpoint(String path) {
+        return path.equals("/api/account/transfer")
+                || path.startsWith("/api/account/transfers/")
+                || path.equals("/api/account/deposit")
+                || path.equals("/api/account/withdraw");
+    }
+
+    // Buckets that have refilled completely hold no state worth keeping
+    @Scheduled(fixedDelayString = "${banking.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        authLimiter.evictIdle();
+        moneyLimiter.evictIdle();
+        accountLimiter.evictIdle();
+    }
+}
@@ -0,0 +1,94 @@
+package com.banking.securebankingapi.security;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per key (user or client address), refilled at a fixed rate up to a burst size.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the instant at which it will be full again
+ * (the "generic cell rate" form of a token bucket), so taking a token is one compare-and-set and
+ * never blocks. A bucket that has refilled completely carries no state and is dropped by
+ * {@link #evictIdle()}; the number of tracked keys is capped at maxKeys.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos; // Time to earn one token
+    private final long burstNanos; // Time to earn a full bucket
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst requests allowed at once after a quiet period
+     * @param maxKeys most keys tracked at the same time
+     */
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and a burst of at least 1");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Take one token for the key.
+     * @return 0 if the request may proceed, otherwise nanoseconds until the next token
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait; // Bucket empty; nothing is written
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop the buckets that have refilled completely; forgetting them changes nothing.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // Full map: drop idle buckets first, then arbitrary ones down to 90% of capacity so the sweep is amortized
+    private void evict(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return; // another thread is already making room
+        }
+        try {
+            buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+            int target = maxKeys - Math.max(1, maxKeys / 10);
+            Iterator<String> it = buckets.keySet().iterator();
+            while (buckets.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
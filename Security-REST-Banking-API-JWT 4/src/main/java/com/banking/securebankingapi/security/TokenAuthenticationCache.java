@@ -0,0 +1,87 @@
+package com.banking.securebankingapi.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded cache of already verified bearer tokens.
+ * A hit skips HMAC verification and claims decoding in {@link JwtFilter}.
+ * Entries are dropped once the token's own expiry ("exp" claim) has passed.
+ */
+@Component
+public class TokenAuthenticationCache {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public TokenAuthenticationCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param token raw bearer token
+     * @return the cached Authentication, or null if absent or expired
+     */
+    public Authentication get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.authentication();
+    }
+
+    /**
+     * Cache a verified token until its expiry. Tokens without "exp" are never cached.
+     */
+    public void put(String token, Authentication authentication, Date expiresAt) {
+        if (maxSize <= 0 || expiresAt == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(token, new Entry(authentication, expiresAt.getTime()));
+    }
+
+    public void invalidate(String token) {
+        entries.remove(token);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drop expired entries first, then arbitrary ones down to 90% of capacity so the sweep is amortized
+    private void evict() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return; // another thread is already making room
+        }
+        try {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+
+            int target = maxSize - Math.max(1, maxSize / 10);
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private record Entry(Authentication authentication, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.banking.securebankingapi.security;
+
+import com.banking.securebankingapi.entity.RevokedToken;
+import com.banking.securebankingapi.repository.RevokedTokenRepository;
+import com.banking.securebankingapi.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revoked JWT ids ("jti"), persisted in the revoked_token table and mirrored in a Bloom filter.
+ * A token that was never revoked is rejected by the filter after a few hash probes; only filter
+ * hits (revoked tokens and the rare false positive) cost a primary key lookup.
+ *
+ * The filter is loaded at startup, receives local revocations immediately and picks up those made
+ * by other instances every jwt.denylist.refresh-interval-ms. It is rebuilt from scratch every
+ * jwt.denylist.rebuild-interval-ms, which also drops entries of expired tokens.
+ */
+@Component
+public class TokenDenylist {
+
+    // Revocations are re-read with this overlap, so rows committed late by other instances are not missed
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private final Counter revokedLookups;
+    private final Counter falsePositiveLookups;
+
+    // Replaced wholesale on rebuild; reads never lock
+    private volatile BloomFilter filter;
+    private LocalDateTime lastRefresh;
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${jwt.denylist.expected-entries:100000}") int expectedEntries,
+                         @Value("${jwt.denylist.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revokedLookups = lookupCounter(meterRegistry, "revoked");
+        this.falsePositiveLookups = lookupCounter(meterRegistry, "false_positive");
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.lastRefresh = LocalDateTime.now();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("banking.jwt.denylist.lookups")
+                .description("Database lookups after a Bloom filter hit on a token id")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the token with this id has been revoked
+     */
+    public boolean isRevoked(String jti) {
+        if (!filter.mightContain(jti)) {
+            return false; // Common case: no database access
+        }
+        if (revokedTokenRepository.isRevoked(jti)) {
+            revokedLookups.increment();
+            return true;
+        }
+        falsePositiveLookups.increment();
+        return false;
+    }
+
+    /**
+     * Persist the revocation, then make it visible to this instance's filter.
+     */
+    public void revoke(String jti, Long userId, Date expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(jti);
+        revoked.setUserId(userId);
+        revoked.setRevokedAt(LocalDateTime.now());
+        revoked.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        try {
+            revokedTokenRepository.save(revoked);
+        } catch (DataIntegrityViolationException e) {
+            // Already revoked
+        }
+        // Committed before the filter is touched, so a concurrent rebuild either reads the row or sees this put
+        synchronized (this) {
+            filter.put(jti);
+        }
+    }
+
+    /**
+     * Load a fresh, right-sized filter from the non-expired revocations.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, active.size() * 2), falsePositiveRate);
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+        lastRefresh = now;
+    }
+
+    // Pick up revocations made by other instances
+    @Scheduled(fixedDelayString = "${jwt.denylist.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.findJtisRevokedSince(lastRefresh.minusSeconds(REFRESH_OVERLAP_SECONDS), now)
+                .forEach(filter::put);
+        lastRefresh = now;
+        if (filter.size() > filter.capacity()) {
+            rebuild(); // Past its sizing the filter would return more and more false positives
+        }
+    }
+
+    @Scheduled(initialDelayString = "${jwt.denylist.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${jwt.denylist.rebuild-interval-ms:3600000}")
+    public void purgeAndRebuild() {
+        transactionTemplate.executeWithoutResult(status ->
+                revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        rebuild();
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.securebankingapi.service;
+
+/**
+ * A money operation naming an account (sender, recipient or the caller's own) that does not exist.
+ * Like an IllegalArgumentException it is a rejection: retrying the same operation cannot succeed.
+ */
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,17 +1,55 @@
 package com.banking.securebankingapi.service;
 
+import com.banking.securebankingapi.cache.BalanceCache;
+import com.banking.securebankingapi.config.ReplicaRoutingDataSource;
+import com.banking.securebankingapi.dto.AccountRef;
+import com.banking.securebankingapi.dto.BalanceSnapshot;
+import com.banking.securebankingapi.dto.BatchTransferResult;
+import com.banking.securebankingapi.dto.TransferRequest;
 import com.banking.securebankingapi.entity.Account;
 import com.banking.securebankingapi.entity.Transaction;
-import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.outbox.OutboxWriter;
 import com.banking.securebankingapi.repository.AccountRepository;
 import com.banking.securebankingapi.repository.TransactionRepository;
-import com.banking.securebankingapi.repository.UserRepository;
+import com.banking.securebankingapi.util.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Money movement on account rows.
+ * Balances are never read-modified-written in Java: every change is a single guarded
+ * UPDATE, so concurrent operations cannot lose updates and no global lock is needed.
+ * A transfer touches its two rows in ascending id order, so transfers never deadlock.
+ * All amounts are in minor units (cents), see {@link com.banking.securebankingapi.util.Money}.
+ * Balances are served from {@link BalanceCache}, which writers update after commit.
+ *
+ * With banking.ledger.enabled=true balances live in the append-only ledger instead
+ * (see {@link LedgerService}): operations append entries and the account rows are only
+ * locked, never updated. Transfers still lock both rows in id order. The balance cache is
+ * not used in that mode.
+ *
+ * Credits to hot accounts (banking.hot-accounts.ids) land on striped sub-balance rows,
+ * see {@link HotAccountService}; their balances bypass the cache as well.
+ *
+ * Every recorded Transaction also queues an outbox event in the same database transaction;
+ * downstream systems receive it asynchronously, see {@link com.banking.securebankingapi.outbox.OutboxRelay}.
+ */
 @Service
 public class AccountService {
 
@@ -22,92 +60,338 @@ public class AccountService {
     private TransactionRepository transactionRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private BalanceCache balanceCache;
 
-    public double getBalance(User user) {
-        Account account = accountRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        return account.getBalance();
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    // Present only when banking.ledger.enabled=true
+    @Autowired(required = false)
+    private LedgerService ledgerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Balance reads that miss the cache; routed to a replica when replicas are configured
+    private TransactionTemplate readOnlyTransaction;
+
+    @Value("${banking.transfer.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    // Rejected operations by reason (batch items are counted individually)
+    private Counter insufficientBalance;
+    private Counter recipientNotFound;
+
+    @PostConstruct
+    void registerMetrics() {
+        insufficientBalance = rejectionCounter("insufficient_balance");
+        recipientNotFound = rejectionCounter("recipient_not_found");
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("banking.account.rejections")
+                .description("Money operations rejected by business rules")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public long getBalance(Long accountId) {
+        if (ledgerService != null) {
+            return ledgerService.getBalance(accountId);
+        }
+        if (hotAccountService.isHot(accountId)) {
+            return hotAccountService.getBalance(accountId);
+        }
+        Long cached = balanceCache.get(accountId);
+        if (cached != null) {
+            return cached;
+        }
+        // Designated by another instance since the last refresh: the account row alone is not the balance
+        if (hotAccountService.discover(accountId)) {
+            return hotAccountService.getBalance(accountId);
+        }
+        BalanceSnapshot snapshot = readOnlyTransaction.execute(status -> {
+            BalanceSnapshot read = accountRepository.findBalanceById(accountId)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+            // A lagging replica could plant an old balance that no later read would replace
+            if (!ReplicaRoutingDataSource.isReplicaRead()) {
+                balanceCache.put(accountId, read.balance(), read.version());
+            }
+            return read;
+        });
+        return snapshot.balance();
     }
 
     @Transactional
-    public void deposit(User user, double amount) {
+    public void deposit(Long accountId, long amount) {
         if (amount <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
 
-        Account account = accountRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+        if (ledgerService != null) {
+            // No row lock: the Transaction's foreign key check takes only a shared lock on the account
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Account not found");
+            }
+            Transaction tx = recordTransaction("DEPOSIT", amount, accountId, null);
+            ledgerService.post(tx, LedgerService.EXTERNAL_ACCOUNT_ID, accountId);
+            return;
+        }
 
-        account.setBalance(account.getBalance() + amount);
-        accountRepository.save(account);
+        credit(accountId, amount, "Account not found");
 
-        Transaction tx = new Transaction();
-        tx.setType("DEPOSIT");
-        tx.setAmount(amount);
-        tx.setFromAccount(account);
-        tx.setTimestamp(LocalDateTime.now());
-        transactionRepository.save(tx);
+        recordTransaction("DEPOSIT", amount, accountId, null);
+        cacheBalancesAfterCommit(accountId);
     }
 
     @Transactional
-    public void withdraw(User user, double amount) {
+    public void withdraw(Long accountId, long amount) {
         if (amount <= 0) {
             throw new IllegalArgumentException("Withdraw amount must be positive");
         }
 
-        Account account = accountRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-
-        if (account.getBalance() < amount) {
-            throw new IllegalArgumentException("Insufficient balance");
+        if (ledgerService != null) {
+            requireFunds(ledgerService.lockBalance(accountId, "Account not found"), amount);
+            Transaction tx = recordTransaction("WITHDRAW", amount, accountId, null);
+            ledgerService.post(tx, accountId, LedgerService.EXTERNAL_ACCOUNT_ID);
+            return;
         }
 
-        account.setBalance(account.getBalance() - amount);
-        accountRepository.save(account);
+        debit(accountId, amount, "Account not found");
 
-        Transaction tx = new Transaction();
-        tx.setType("WITHDRAW");
-        tx.setAmount(amount);
-        tx.setFromAccount(account);
-        tx.setTimestamp(LocalDateTime.now());
-        transactionRepository.save(tx);
+        recordTransaction("WITHDRAW", amount, accountId, null);
+        cacheBalancesAfterCommit(accountId);
     }
 
     @Transactional
-    public void transfer(User fromUser, String toUsername, double amount) {
+    public void transfer(Long fromAccountId, String toUsername, long amount) {
         if (amount <= 0) {
             throw new IllegalArgumentException("Transfer amount must be positive");
         }
 
-        Account fromAccount = accountRepository.findByUser(fromUser)
-                .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        // Recipient account id is resolved in one join query, unless the filter knows there is no such user
+        Long toAccountId = usernameFilter.mightExist(toUsername)
+                ? accountRepository.findIdByUsername(toUsername).orElse(null) : null;
+        if (toAccountId == null) {
+            recipientNotFound.increment();
+            throw new AccountNotFoundException("Recipient not found");
+        }
 
-        if (fromAccount.getBalance() < amount) {
-            throw new IllegalArgumentException("Insufficient balance");
+        if (ledgerService != null) {
+            // Both rows in id order: the Transaction's foreign key check would otherwise take a
+            // shared lock on the recipient row, and opposite transfers would deadlock
+            requireFunds(ledgerService.lockBalance(fromAccountId, toAccountId, "Sender account not found"), amount);
+            Transaction tx = recordTransaction("TRANSFER", amount, fromAccountId, toAccountId);
+            ledgerService.post(tx, fromAccountId, toAccountId);
+            return;
+        }
+
+        // Lock both rows in id order; a failed debit rolls back an earlier credit.
+        // A hot account's stripes are locked right after its row, see HotAccountService.
+        if (fromAccountId < toAccountId) {
+            debit(fromAccountId, amount, "Sender account not found");
+            credit(toAccountId, amount, "Recipient account not found");
+        } else {
+            credit(toAccountId, amount, "Recipient account not found");
+            debit(fromAccountId, amount, "Sender account not found");
         }
 
-        User toUser = userRepository.findByUsername(toUsername)
-                .orElseThrow(() -> new RuntimeException("Recipient not found"));
+        recordTransaction("TRANSFER", amount, fromAccountId, toAccountId);
+        cacheBalancesAfterCommit(fromAccountId, toAccountId);
+    }
+
+    /**
+     * Apply many transfers from one account in a single transaction.
+     * All involved accounts are resolved and row-locked with one query each, the transfers are
+     * applied in memory in request order, and balances plus Transaction rows are written with
+     * JDBC batching at commit. A failing transfer is reported in its result and skipped; the rest still apply.
+     */
+    @Transactional
+    public BatchTransferResult transferBatch(Long fromAccountId, List<TransferRequest> transfers) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("At least one transfer is required");
+        }
+        if (transfers.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " transfers per batch");
+        }
 
-        Account toAccount = accountRepository.findByUser(toUser)
-                .orElseThrow(() -> new RuntimeException("Recipient account not found"));
+        // Resolve every recipient in one query
+        Set<String> usernames = new HashSet<>();
+        for (TransferRequest transfer : transfers) {
+            if (transfer != null && transfer.toUsername() != null && usernameFilter.mightExist(transfer.toUsername())) {
+                usernames.add(transfer.toUsername());
+            }
+        }
+        Map<String, Long> recipientIds = new HashMap<>();
+        if (!usernames.isEmpty()) {
+            for (AccountRef ref : accountRepository.findRefsByUsernames(usernames)) {
+                recipientIds.put(ref.username(), ref.id());
+            }
+        }
 
-        // Deduct from sender
-        fromAccount.setBalance(fromAccount.getBalance() - amount);
-        accountRepository.save(fromAccount);
+        // Lock sender and recipients in id order in one query
+        boolean ledger = ledgerService != null;
+        Set<Long> ids = new HashSet<>();
+        ids.add(fromAccountId);
+        // Hot recipients are locked too and credited on their stripes after the loop
+        ids.addAll(recipientIds.values());
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(ids)) {
+            accounts.put(account.getId(), account);
+        }
+        Account from = accounts.get(fromAccountId);
+        if (from == null) {
+            throw new AccountNotFoundException("Sender account not found");
+        }
+        if (!ledger && hotAccountService.isHot(fromAccountId)) {
+            // The sender row is locked; take in whatever its stripes hold so it can all be spent
+            from.setBalance(from.getBalance() + hotAccountService.drainStripes(fromAccountId));
+        }
+        Map<Long, Long> hotCredits = new HashMap<>();
 
-        // Add to recipient
-        toAccount.setBalance(toAccount.getBalance() + amount);
-        accountRepository.save(toAccount);
+        List<BatchTransferResult.Item> results = new ArrayList<>(transfers.size());
+        List<Transaction> records = new ArrayList<>(transfers.size());
+        LocalDateTime now = LocalDateTime.now();
+        long available = ledger ? ledgerService.getBalance(fromAccountId) : from.getBalance();
+        int succeeded = 0;
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            String toUsername = transfer == null ? null : transfer.toUsername();
+            try {
+                long amount = Money.fromDecimal(transfer == null ? null : transfer.amount());
+                if (amount <= 0) {
+                    throw new IllegalArgumentException("Transfer amount must be positive");
+                }
+                Long toAccountId = recipientIds.get(toUsername);
+                boolean hotRecipient = !ledger && toAccountId != null && hotAccountService.isHot(toAccountId);
+                Account to = toAccountId == null ? null
+                        : hotRecipient ? accountRepository.getReferenceById(toAccountId) : accounts.get(toAccountId);
+                if (to == null) {
+                    recipientNotFound.increment();
+                    throw new IllegalArgumentException("Recipient not found");
+                }
+                if (available < amount) {
+                    insufficientBalance.increment();
+                    throw new IllegalArgumentException("Insufficient balance");
+                }
+
+                available -= amount;
+                if (!ledger) {
+                    from.setBalance(from.getBalance() - amount);
+                    if (hotRecipient) {
+                        hotCredits.merge(toAccountId, amount, Long::sum);
+                    } else {
+                        to.setBalance(to.getBalance() + amount);
+                    }
+                }
+
+                Transaction tx = new Transaction();
+                tx.setType("TRANSFER");
+                tx.setAmount(amount);
+                tx.setFromAccount(from);
+                tx.setToAccount(to);
+                tx.setTimestamp(now);
+                records.add(tx);
+
+                results.add(new BatchTransferResult.Item(i, toUsername, true, null));
+                succeeded++;
+            } catch (IllegalArgumentException e) {
+                results.add(new BatchTransferResult.Item(i, toUsername, false, e.getMessage()));
+            }
+        }
+
+        // Balance updates are flushed by dirty checking; both are sent as JDBC batches
+        transactionRepository.saveAll(records);
+        outboxWriter.append(records);
+
+        if (ledger) {
+            // Ids are assigned on save; the entries go out in the same JDBC batches
+            for (Transaction tx : records) {
+                ledgerService.post(tx, fromAccountId, tx.getToAccount().getId());
+            }
+            return new BatchTransferResult(succeeded, transfers.size() - succeeded, results);
+        }
+
+        // Flushing bumps the versions of changed accounts, which the cache needs
+        if (succeeded > 0) {
+            accountRepository.flush();
+            for (Account account : accounts.values()) {
+                if (!hotAccountService.isHot(account.getId())) {
+                    balanceCache.putAfterCommit(account.getId(), account.getBalance(), account.getVersion());
+                }
+            }
+            // One stripe update per hot recipient, whose row is already locked
+            hotCredits.forEach((accountId, amount) -> credit(accountId, amount, "Recipient account not found"));
+        }
 
-        // Save transaction
+        return new BatchTransferResult(succeeded, transfers.size() - succeeded, results);
+    }
+
+    private void requireFunds(long balance, long amount) {
+        if (balance < amount) {
+            insufficientBalance.increment();
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+    }
+
+    private void credit(Long accountId, long amount, String notFoundMessage) {
+        if (hotAccountService.credit(accountId, amount)) {
+            return;
+        }
+        if (accountRepository.credit(accountId, amount) == 0) {
+            throw new AccountNotFoundException(notFoundMessage);
+        }
+    }
+
+    private void debit(Long accountId, long amount, String notFoundMessage) {
+        if (accountRepository.debit(accountId, amount) == 0) {
+            // A hot account may hold the missing funds on its stripes
+            if (hotAccountService.isHot(accountId) && hotAccountService.moveStripesToAccount(accountId)
+                    && accountRepository.debit(accountId, amount) > 0) {
+                return;
+            }
+            // Only the failure path pays for telling the two cases apart
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException(notFoundMessage);
+            }
+            insufficientBalance.increment();
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+    }
+
+    // Re-read the rows this transaction changed (still locked by it) and cache them once it commits
+    private void cacheBalancesAfterCommit(Long... accountIds) {
+        for (BalanceSnapshot snapshot : accountRepository.findBalancesByIds(Arrays.asList(accountIds))) {
+            if (hotAccountService.isHot(snapshot.accountId())) {
+                continue;
+            }
+            balanceCache.putAfterCommit(snapshot.accountId(), snapshot.balance(), snapshot.version());
+        }
+    }
+
+    // Accounts are referenced by id only; getReferenceById does not hit the database
+    private Transaction recordTransaction(String type, long amount, Long fromAccountId, Long toAccountId) {
         Transaction tx = new Transaction();
-        tx.setType("TRANSFER");
+        tx.setType(type);
         tx.setAmount(amount);
-        tx.setFromAccount(fromAccount);
-        tx.setToAccount(toAccount);
+        tx.setFromAccount(accountRepository.getReferenceById(fromAccountId));
+        if (toAccountId != null) {
+            tx.setToAccount(accountRepository.getReferenceById(toAccountId));
+        }
         tx.setTimestamp(LocalDateTime.now());
         transactionRepository.save(tx);
+        outboxWriter.append(List.of(tx));
+        return tx;
     }
 }
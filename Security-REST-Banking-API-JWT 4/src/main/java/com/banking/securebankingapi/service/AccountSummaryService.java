@@ -0,0 +1,229 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.dto.AccountSummary;
+import com.banking.securebankingapi.dto.RollupDelta;
+import com.banking.securebankingapi.dto.SummaryBucket;
+import com.banking.securebankingapi.entity.AccountSummaryRollup;
+import com.banking.securebankingapi.entity.AggregationCheckpoint;
+import com.banking.securebankingapi.repository.AccountSummaryRollupRepository;
+import com.banking.securebankingapi.repository.AggregationCheckpointRepository;
+import com.banking.securebankingapi.repository.TransactionRepository;
+import com.banking.securebankingapi.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-account daily and monthly totals (deposited, withdrawn, sent, received), precomputed
+ * so that summary requests read a handful of rollup rows instead of scanning the history.
+ *
+ * Rollups are maintained by tailing the transaction table in the background rather than inside
+ * each money operation: the money path keeps its current row locks, and a busy account does not
+ * get a second hot row to contend on. The tail is cut by time, like the ledger compaction; the lag
+ * (banking.summary.lag-ms) must exceed spring.transaction.default-timeout so that no transaction
+ * timestamped before the watermark can still commit after it. The first runs backfill the whole
+ * existing history, at most banking.summary.max-days-per-run days per run so that the backfill
+ * does not hold up the other scheduled jobs.
+ */
+@Service
+public class AccountSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountSummaryService.class);
+
+    static final String CHECKPOINT = "account-summary";
+
+    // Longest range a single summary request may cover
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_MONTHS = 120;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountSummaryRollupRepository rollupRepository;
+
+    @Autowired
+    private AggregationCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${banking.summary.lag-ms:60000}")
+    private long lagMs;
+
+    @Value("${banking.summary.max-days-per-run:31}")
+    private int maxDaysPerRun;
+
+    @Scheduled(fixedDelayString = "${banking.summary.refresh-interval-ms:30000}")
+    public void refresh() {
+        catchUpTo(LocalDateTime.now().minus(lagMs, ChronoUnit.MILLIS), maxDaysPerRun);
+    }
+
+    /**
+     * Fold every transaction before target into the rollups, one day at a time.
+     * @return number of days (chunks) processed
+     */
+    public int catchUpTo(LocalDateTime target) {
+        return catchUpTo(target, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #catchUpTo(LocalDateTime)}, but stop after maxChunks days; the next call carries on.
+     */
+    public synchronized int catchUpTo(LocalDateTime target, int maxChunks) {
+        // Read-write transaction, so the primary: every fold from a replica's stale watermark would fail
+        LocalDateTime watermark = transactionTemplate.execute(status -> checkpointRepository.findById(CHECKPOINT)
+                .map(AggregationCheckpoint::getWatermark)
+                .or(transactionRepository::findOldestTimestamp) // Backfill starts at the oldest transaction
+                .orElse(null));
+        if (watermark == null) {
+            return 0; // No history yet
+        }
+        int chunks = 0;
+        while (watermark.isBefore(target) && chunks < maxChunks) {
+            // A chunk never crosses midnight, so all of it lands in one day and one month
+            LocalDateTime nextDay = watermark.toLocalDate().plusDays(1).atStartOfDay();
+            LocalDateTime end = nextDay.isBefore(target) ? nextDay : target;
+            LocalDateTime start = watermark;
+            try {
+                transactionTemplate.executeWithoutResult(status -> foldChunk(start, end));
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Another node folded this window concurrently; it will carry on from there
+                log.debug("Summary window from {} aggregated concurrently", start);
+                return chunks;
+            }
+            watermark = end;
+            chunks++;
+        }
+        return chunks;
+    }
+
+    /**
+     * Drop all rollups and aggregate the whole history again, e.g. after a correction.
+     */
+    public synchronized int rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkpointRepository.deleteAllInBatch();
+            rollupRepository.deleteAllInBatch();
+        });
+        return catchUpTo(LocalDateTime.now().minus(lagMs, ChronoUnit.MILLIS));
+    }
+
+    private void foldChunk(LocalDateTime start, LocalDateTime end) {
+        AggregationCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT).orElseGet(() -> {
+            AggregationCheckpoint created = new AggregationCheckpoint();
+            created.setName(CHECKPOINT);
+            created.setWatermark(start);
+            return created;
+        });
+        if (!checkpoint.getWatermark().equals(start)) {
+            // Someone else moved the watermark since we read it
+            throw new OptimisticLockingFailureException("Summary watermark moved to " + checkpoint.getWatermark());
+        }
+
+        List<RollupDelta> deltas = new ArrayList<>(transactionRepository.sumBySourceBetween(start, end));
+        deltas.addAll(transactionRepository.sumReceivedBetween(start, end));
+        deltas.removeIf(delta -> delta.accountId() == null); // Rows without an account on that side
+        if (!deltas.isEmpty()) {
+            LocalDate day = start.toLocalDate();
+            applyDeltas(deltas, AccountSummaryRollup.DAY, day);
+            applyDeltas(deltas, AccountSummaryRollup.MONTH, day.withDayOfMonth(1));
+        }
+
+        // Versioned save: a concurrent advance of the same window fails here and rolls back the rollups
+        checkpoint.setWatermark(end);
+        checkpointRepository.save(checkpoint);
+    }
+
+    private void applyDeltas(List<RollupDelta> deltas, String period, LocalDate periodStart) {
+        Map<Long, AccountSummaryRollup> rollups = new HashMap<>();
+        for (AccountSummaryRollup existing : rollupRepository.findForAccounts(
+                deltas.stream().map(RollupDelta::accountId).distinct().toList(), period, periodStart)) {
+            rollups.put(existing.getAccountId(), existing);
+        }
+        for (RollupDelta delta : deltas) {
+            AccountSummaryRollup rollup = rollups.computeIfAbsent(delta.accountId(), id -> {
+                AccountSummaryRollup created = new AccountSummaryRollup();
+                created.setAccountId(id);
+                created.setPeriod(period);
+                created.setPeriodStart(periodStart);
+                return created;
+            });
+            long amount = delta.amount();
+            switch (delta.kind()) {
+                case "DEPOSIT" -> rollup.setDeposited(rollup.getDeposited() + amount);
+                case "WITHDRAW" -> rollup.setWithdrawn(rollup.getWithdrawn() + amount);
+                case "TRANSFER" -> rollup.setSent(rollup.getSent() + amount);
+                case "RECEIVED" -> rollup.setReceived(rollup.getReceived() + amount);
+                default -> {
+                    continue; // Unknown type, not part of the summary
+                }
+            }
+            rollup.setTransactionCount(rollup.getTransactionCount() + delta.count());
+        }
+        rollupRepository.saveAll(rollups.values());
+    }
+
+    /**
+     * Day or month buckets of an account in [from, to], answered from rollups only.
+     * Buckets without activity are omitted.
+     */
+    @Transactional(readOnly = true) // Served by a replica when replicas are configured
+    public AccountSummary getSummary(Long accountId, String period, LocalDate from, LocalDate to) {
+        boolean monthly;
+        if ("day".equalsIgnoreCase(period)) {
+            monthly = false;
+        } else if ("month".equalsIgnoreCase(period)) {
+            monthly = true;
+        } else {
+            throw new IllegalArgumentException("Period must be 'day' or 'month'");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        LocalDate first = monthly ? from.withDayOfMonth(1) : from;
+        // Bounded so the answer stays a small, constant number of rows
+        if (monthly ? ChronoUnit.MONTHS.between(first, to) >= MAX_MONTHS
+                : ChronoUnit.DAYS.between(first, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Summary range is limited to "
+                    + (monthly ? MAX_MONTHS + " months" : MAX_DAYS + " days"));
+        }
+
+        List<SummaryBucket> buckets = rollupRepository.findRange(accountId,
+                        monthly ? AccountSummaryRollup.MONTH : AccountSummaryRollup.DAY, first, to).stream()
+                .map(r -> new SummaryBucket(r.getPeriodStart(),
+                        Money.toDecimal(r.getDeposited()),
+                        Money.toDecimal(r.getWithdrawn()),
+                        Money.toDecimal(r.getSent()),
+                        Money.toDecimal(r.getReceived()),
+                        r.getTransactionCount()))
+                .toList();
+        return new AccountSummary(monthly ? "month" : "day", getWatermark().orElse(null), buckets);
+    }
+
+    /**
+     * Transactions before this instant are included in the rollups. Read from the primary; within
+     * {@link #getSummary} it is read in the same transaction as the rollups instead, so it describes
+     * them even when a replica serves both.
+     */
+    @Transactional // Not read-only, so not routed to a possibly lagging replica
+    public Optional<LocalDateTime> getWatermark() {
+        return checkpointRepository.findById(CHECKPOINT).map(AggregationCheckpoint::getWatermark);
+    }
+}
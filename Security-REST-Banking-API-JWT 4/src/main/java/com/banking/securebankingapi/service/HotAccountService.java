@@ -0,0 +1,183 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.entity.AccountStripe;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.AccountStripeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Striped balances for designated hot accounts (e.g. a merchant receiving many transfers).
+ *
+ * Credits to a hot account go round-robin to one of N {@link AccountStripe} rows, so up to N
+ * credits proceed in parallel instead of serializing on the account row. Debits use the account
+ * row first and, when it is short, borrow by sweeping all stripes into it.
+ *
+ * Lock order is always account row first, then its stripes, so sweeps cannot deadlock with
+ * credits. Debits hold the row exclusively. Credits take a shared lock on it before updating
+ * their stripe, the same lock the foreign key check of their Transaction row would take later,
+ * so credits still run in parallel with each other. Not used in ledger mode.
+ *
+ * Which accounts are hot is whatever has rows in account_stripe. Each instance keeps that set in
+ * memory, re-reads it periodically and checks for stripes on a balance cache miss, so an account
+ * designated by another instance has its stripes counted from then on.
+ */
+@Service
+public class HotAccountService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotAccountService.class);
+
+    @Autowired
+    private AccountStripeRepository accountStripeRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${banking.hot-accounts.ids:}")
+    private List<Long> configuredIds;
+
+    @Value("${banking.hot-accounts.stripes:8}")
+    private int defaultStripes;
+
+    // Hot account id -> number of stripes; read on every credit, so kept in memory
+    private final Map<Long, Integer> stripeCounts = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextStripe = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHotAccounts() {
+        refresh();
+        for (Long accountId : configuredIds) {
+            if (stripeCounts.get(accountId) == null || stripeCounts.get(accountId) != defaultStripes) {
+                if (accountRepository.existsById(accountId)) {
+                    designate(accountId, defaultStripes);
+                } else {
+                    log.warn("Hot account {} does not exist, not striping it", accountId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-read the hot accounts from account_stripe, picking up designations made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${banking.hot-accounts.refresh-interval-ms:10000}")
+    public void refresh() {
+        Map<Long, Integer> current = new HashMap<>();
+        for (Object[] row : accountStripeRepository.countStripesByAccount()) {
+            current.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        stripeCounts.putAll(current);
+        stripeCounts.keySet().retainAll(current.keySet());
+    }
+
+    public boolean isHot(Long accountId) {
+        return stripeCounts.containsKey(accountId);
+    }
+
+    /**
+     * Check the database for stripes of an account not known to be hot, e.g. because another
+     * instance designated it since the last refresh. Called before caching a balance read.
+     * @return true if the account has stripes; it is then known to be hot
+     */
+    public boolean discover(Long accountId) {
+        long stripes = accountStripeRepository.countByAccountId(accountId);
+        if (stripes == 0) {
+            return false;
+        }
+        stripeCounts.put(accountId, (int) stripes);
+        return true;
+    }
+
+    /**
+     * Make an account hot with the given number of stripes, or re-stripe it.
+     * Existing stripe balances are moved into the account row first.
+     */
+    public void designate(Long accountId, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (accountRepository.findAllByIdForUpdate(List.of(accountId)).isEmpty()) {
+                throw new AccountNotFoundException("Account not found");
+            }
+            moveStripesToAccount(accountId);
+            accountStripeRepository.deleteByAccountId(accountId);
+            List<AccountStripe> rows = new ArrayList<>(stripes);
+            for (int i = 0; i < stripes; i++) {
+                AccountStripe stripe = new AccountStripe();
+                stripe.setAccountId(accountId);
+                stripe.setStripe(i);
+                rows.add(stripe);
+            }
+            accountStripeRepository.saveAll(rows);
+        });
+        stripeCounts.put(accountId, stripes);
+    }
+
+    /**
+     * Credit one stripe of a hot account inside the caller's transaction, after a shared lock on
+     * the account row.
+     * @return false if the account is not hot (or its stripe is gone); the caller then credits the account row
+     */
+    public boolean credit(Long accountId, long amount) {
+        Integer stripes = stripeCounts.get(accountId);
+        if (stripes == null || accountRepository.findByIdForShare(accountId).isEmpty()) {
+            return false;
+        }
+        int stripe = Math.floorMod(nextStripe.getAndIncrement(), stripes);
+        return accountStripeRepository.credit(accountId, stripe, amount) > 0;
+    }
+
+    public long getBalance(Long accountId) {
+        return accountStripeRepository.findStripedBalance(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+    }
+
+    /**
+     * Lock all stripes of an account, zero them and return what they held.
+     * The caller must already hold the account row lock and add the result to Account.balance.
+     */
+    public long drainStripes(Long accountId) {
+        long drained = 0;
+        for (AccountStripe stripe : accountStripeRepository.findByAccountIdForUpdate(accountId)) {
+            drained += stripe.getBalance();
+            stripe.setBalance(0);
+        }
+        return drained;
+    }
+
+    /**
+     * Borrow from the stripes: lock the account row, then move every stripe balance into it.
+     * Runs in the caller's transaction.
+     * @return true if anything was moved
+     */
+    public boolean moveStripesToAccount(Long accountId) {
+        if (accountRepository.findAllByIdForUpdate(List.of(accountId)).isEmpty()) {
+            return false;
+        }
+        long drained = drainStripes(accountId);
+        if (drained == 0) {
+            return false;
+        }
+        accountRepository.credit(accountId, drained);
+        return true;
+    }
+}
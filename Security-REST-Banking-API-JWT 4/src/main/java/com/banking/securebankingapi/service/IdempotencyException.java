@@ -0,0 +1,21 @@
+package com.banking.securebankingapi.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request carrying an Idempotency-Key that cannot be served: the key is malformed,
+ * was already used for a different request, or its original is still running.
+ */
+public class IdempotencyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,208 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.entity.IdempotencyRecord;
+import com.banking.securebankingapi.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs money operations at most once per (account, Idempotency-Key).
+ *
+ * Recent keys live in an in-memory map of futures: a retry of a finished request is answered
+ * from memory, and a concurrent duplicate waits on the original's future instead of running.
+ * Behind it, {@link IdempotencyRecord} rows are written in the operation's own transaction, so
+ * results survive restarts and a duplicate arriving at another instance hits the unique key.
+ * Failed operations are rolled back and not remembered; a retry runs them again.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // How long a key is remembered in the table, and (shorter) in memory
+    @Value("${banking.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${banking.idempotency.memory-ttl-ms:600000}")
+    private long memoryTtlMs;
+
+    // How long a duplicate waits for its in-flight original before giving up with 409
+    @Value("${banking.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Run the action once for this key and return its result; repeats return the stored result.
+     * @param key the Idempotency-Key header, or null to just run the action
+     * @param operation name of the endpoint, part of the request fingerprint
+     * @param request request body, part of the request fingerprint
+     */
+    public <T> T execute(Long accountId, String key, String operation, Object request,
+                         Class<T> resultType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(operation, request);
+        String mapKey = accountId + ":" + key;
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = entries.putIfAbsent(mapKey, mine);
+        if (existing != null) {
+            return replay(await(existing), requestHash, resultType);
+        }
+
+        try {
+            Entry entry = runOnce(accountId, key, requestHash, action);
+            mine.complete(entry);
+            return replay(entry, requestHash, resultType);
+        } catch (RuntimeException e) {
+            // Nothing was committed: let waiters see the failure and the next retry run again
+            entries.remove(mapKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Serve the stored result if the table has one, else run the action and store its result atomically
+    private <T> Entry runOnce(Long accountId, String key, String requestHash, Supplier<T> action) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findByAccountIdAndIdempotencyKey(accountId, key);
+        if (stored.isPresent() && stored.get().getExpiresAt().isAfter(now)) {
+            return toEntry(stored.get());
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                if (stored.isPresent()) {
+                    // Expired, the key may be reused. A bulk delete runs now; a deleted entity would
+                    // only go at flush, after the insert below has already hit the unique key
+                    idempotencyRecordRepository.deleteExpiredKey(accountId, key, now);
+                }
+
+                // Claim the key first: a duplicate on another instance blocks on this row, then fails
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setAccountId(accountId);
+                record.setIdempotencyKey(key);
+                record.setRequestHash(requestHash);
+                record.setCreatedAt(now);
+                record.setExpiresAt(now.plus(ttlMs, ChronoUnit.MILLIS));
+                idempotencyRecordRepository.saveAndFlush(record);
+
+                record.setResponseBody(toJson(action.get()));
+                return toEntry(record);
+            });
+        } catch (DataIntegrityViolationException duplicate) {
+            // Another instance committed this key first; our attempt was rolled back
+            return idempotencyRecordRepository.findByAccountIdAndIdempotencyKey(accountId, key)
+                    .map(this::toEntry)
+                    .orElseThrow(() -> duplicate);
+        }
+    }
+
+    private Entry await(CompletableFuture<Entry> original) {
+        try {
+            return original.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Same outcome as the original request
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T replay(Entry entry, String requestHash, Class<T> resultType) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(entry.responseBody(), resultType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+    }
+
+    /**
+     * Forget finished keys: from memory after memory-ttl, from the table after ttl.
+     */
+    @Scheduled(fixedDelayString = "${banking.idempotency.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(future -> future.isDone() && !future.isCompletedExceptionally()
+                && future.join().rememberUntilMillis() <= now);
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry toEntry(IdempotencyRecord record) {
+        return new Entry(record.getRequestHash(), record.getResponseBody(), System.currentTimeMillis() + memoryTtlMs);
+    }
+
+    private String toJson(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Result is not serializable", e);
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String requestHash, String responseBody, long rememberUntilMillis) {
+    }
+}
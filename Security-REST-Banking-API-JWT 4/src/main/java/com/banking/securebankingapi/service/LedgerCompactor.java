@@ -0,0 +1,95 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.entity.LedgerSnapshot;
+import com.banking.securebankingapi.repository.LedgerEntryRepository;
+import com.banking.securebankingapi.repository.LedgerSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Background job that folds ledger entries into per-account snapshots, so that balance reads
+ * only sum the entries written since the last snapshot.
+ *
+ * Only entries older than banking.ledger.compaction-lag-ms are compacted. Entry ids come from a
+ * pooled sequence and do not follow commit order, so the cut is made by creation time. The lag
+ * must exceed the longest money transaction (spring.transaction.default-timeout), so that no
+ * entry created before the cut can still commit after it.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.ledger.enabled", havingValue = "true")
+public class LedgerCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerCompactor.class);
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${banking.ledger.compaction-lag-ms:300000}")
+    private long compactionLagMs;
+
+    // Entries before this instant have already been looked at by this node
+    private LocalDateTime lastCutoff = LedgerService.EPOCH;
+
+    @Scheduled(fixedDelayString = "${banking.ledger.compaction-interval-ms:60000}")
+    public void compact() {
+        compactUpTo(LocalDateTime.now().minus(compactionLagMs, ChronoUnit.MILLIS));
+    }
+
+    /**
+     * Advance the snapshot of every account with entries in [lastCutoff, cutoff) to cutoff.
+     * @return number of snapshots written
+     */
+    public synchronized int compactUpTo(LocalDateTime cutoff) {
+        if (!cutoff.isAfter(lastCutoff)) {
+            return 0;
+        }
+        int written = 0;
+        for (Long accountId : ledgerEntryRepository.findAccountIdsWithEntriesBetween(lastCutoff, cutoff)) {
+            try {
+                Boolean advanced = transactionTemplate.execute(status -> compactAccount(accountId, cutoff));
+                if (Boolean.TRUE.equals(advanced)) {
+                    written++;
+                }
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Another node advanced this snapshot concurrently; its result is equally valid
+                log.debug("Snapshot of account {} compacted concurrently", accountId);
+            }
+        }
+        lastCutoff = cutoff;
+        return written;
+    }
+
+    private boolean compactAccount(Long accountId, LocalDateTime cutoff) {
+        LedgerSnapshot snapshot = ledgerSnapshotRepository.findById(accountId).orElseGet(() -> {
+            LedgerSnapshot fresh = new LedgerSnapshot();
+            fresh.setAccountId(accountId);
+            fresh.setUpTo(LedgerService.EPOCH);
+            return fresh;
+        });
+        if (!snapshot.getUpTo().isBefore(cutoff)) {
+            return false;
+        }
+        snapshot.setBalance(snapshot.getBalance()
+                + ledgerEntryRepository.sumBetween(accountId, snapshot.getUpTo(), cutoff));
+        snapshot.setUpTo(cutoff);
+        ledgerSnapshotRepository.save(snapshot);
+        return true;
+    }
+}
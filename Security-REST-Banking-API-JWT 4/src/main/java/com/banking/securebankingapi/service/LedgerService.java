@@ -0,0 +1,138 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.entity.Account;
+import com.banking.securebankingapi.entity.LedgerEntry;
+import com.banking.securebankingapi.entity.LedgerSnapshot;
+import com.banking.securebankingapi.entity.Transaction;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.LedgerEntryRepository;
+import com.banking.securebankingapi.repository.LedgerSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Append-only double-entry ledger, active when banking.ledger.enabled=true.
+ *
+ * Account.balance is not written in this mode. A balance is its latest {@link LedgerSnapshot}
+ * plus the entries created since it. Debits lock the debited account row, so that two debits of
+ * the same account cannot both pass the balance check. The Transaction insert checks its foreign
+ * keys, which on MySQL takes a shared lock on every account row it references. A transfer
+ * therefore locks both of its rows in id order, so transfers in opposite directions cannot
+ * deadlock. Deposits take only the shared lock, so concurrent deposits to one account do not
+ * wait for each other.
+ *
+ * Money held before ledger mode was switched on is carried over once, as an opening snapshot per
+ * account (see {@link #openAccounts()}). Switch all instances over together: an instance still
+ * outside ledger mode keeps writing Account.balance, which the ledger no longer reads.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.ledger.enabled", havingValue = "true")
+public class LedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    // Counterpart of deposits and withdrawals, so every posting still balances to zero
+    public static final long EXTERNAL_ACCOUNT_ID = 0L;
+
+    // Start of time for accounts that have no snapshot yet
+    static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Opening snapshot, as of now, for every account holding money outside the ledger: Account.balance
+    // plus its hot-account stripes. Accounts with a snapshot or ledger entries are already in the ledger
+    private static final String OPEN_ACCOUNTS = "insert into ledger_snapshot (account_id, balance, up_to, version)"
+            + " select a.id, a.balance + (select coalesce(sum(s.balance), 0) from account_stripe s where s.account_id = a.id), ?, 0"
+            + " from account a"
+            + " where (a.balance <> 0 or exists (select 1 from account_stripe s where s.account_id = a.id and s.balance <> 0))"
+            + " and not exists (select 1 from ledger_snapshot l where l.account_id = a.id)"
+            + " and not exists (select 1 from ledger_entry e where e.account_id = a.id)";
+
+    /**
+     * Carry balances kept in the account rows (and hot-account stripes) over into the ledger, before
+     * this instance serves a balance. Idempotent: accounts already in the ledger are skipped, and an
+     * instance starting alongside that opened the same accounts first is harmless.
+     * @return number of accounts opened
+     */
+    @PostConstruct
+    public int openAccounts() {
+        int opened;
+        try {
+            opened = jdbcTemplate.update(OPEN_ACCOUNTS, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // Another instance starting alongside inserted some of the same snapshots; the rest are picked up now
+            opened = jdbcTemplate.update(OPEN_ACCOUNTS, LocalDateTime.now());
+        }
+        if (opened > 0) {
+            log.info("Opened {} accounts in the ledger with their existing balances", opened);
+        }
+        return opened;
+    }
+
+    public long getBalance(Long accountId) {
+        LedgerSnapshot snapshot = ledgerSnapshotRepository.findById(accountId).orElse(null);
+        if (snapshot == null) {
+            return ledgerEntryRepository.sumSince(accountId, EPOCH);
+        }
+        return snapshot.getBalance() + ledgerEntryRepository.sumSince(accountId, snapshot.getUpTo());
+    }
+
+    /**
+     * Lock the account row (serializing debits of this account) and return its balance.
+     * Must run inside the transaction that posts the debit.
+     */
+    public long lockBalance(Long accountId, String notFoundMessage) {
+        return lockBalance(accountId, accountId, notFoundMessage);
+    }
+
+    /**
+     * Lock the sender and recipient rows of a transfer in id order and return the sender's balance.
+     * Must run inside the transaction that posts the transfer.
+     */
+    public long lockBalance(Long accountId, Long recipientAccountId, String notFoundMessage) {
+        List<Account> locked = accountRepository.findAllByIdForUpdate(List.of(accountId, recipientAccountId));
+        if (locked.stream().noneMatch(account -> account.getId().equals(accountId))) {
+            throw new AccountNotFoundException(notFoundMessage);
+        }
+        return getBalance(accountId);
+    }
+
+    /**
+     * Append the two entries of a saved Transaction: debit one account, credit the other.
+     */
+    public void post(Transaction tx, Long debitAccountId, Long creditAccountId) {
+        LocalDateTime now = LocalDateTime.now();
+        ledgerEntryRepository.saveAll(List.of(
+                entry(tx, debitAccountId, -tx.getAmount(), now),
+                entry(tx, creditAccountId, tx.getAmount(), now)
+        ));
+    }
+
+    private static LedgerEntry entry(Transaction tx, Long accountId, long amount, LocalDateTime createdAt) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setAccountId(accountId);
+        entry.setTransactionId(tx.getId());
+        entry.setAmount(amount);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+}
@@ -0,0 +1,118 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.entity.RefreshToken;
+import com.banking.securebankingapi.repository.RefreshTokenRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Long-lived refresh tokens that are exchanged for new short-lived access tokens.
+ *
+ * Tokens are 256 random bits, handed out once and stored only as a SHA-256 hash. Every exchange
+ * rotates the token; a token that is presented again after its rotation (or raced by a second
+ * request) is treated as stolen, and every token of that login is revoked.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    /**
+     * Result of a successful rotation: whose token it was, and its successor.
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    /**
+     * Start a new token family, e.g. at login.
+     * @return the raw token to hand to the client
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for its successor.
+     * @return the rotation, or null if the token is unknown, expired, revoked or reused
+     */
+    @Transactional
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken)).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        if (token == null || token.getRevokedAt() != null || !token.getExpiresAt().isAfter(now)) {
+            return null;
+        }
+        // Conditional update: of two requests with the same token only one can win
+        if (token.getUsedAt() != null || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            log.warn("Refresh token reuse detected for user {}, revoking its family", token.getUserId());
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            return null;
+        }
+        return new Rotation(token.getUserId(), issue(token.getUserId(), token.getFamilyId()));
+    }
+
+    /**
+     * Revoke the token and every other rotation of the same login (logout).
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken)).ifPresent(token ->
+                refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-sweep-interval-ms:3600000}")
+    @Transactional
+    public void sweep() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(refreshExpirationMs, ChronoUnit.MILLIS));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    // A fast hash is enough: the token has 256 bits of entropy, so there is nothing to brute-force
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
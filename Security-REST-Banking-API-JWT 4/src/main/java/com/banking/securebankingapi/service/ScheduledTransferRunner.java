@@ -0,0 +1,189 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.entity.ScheduledTransfer;
+import com.banking.securebankingapi.entity.ScheduledTransferPartition;
+import com.banking.securebankingapi.repository.ScheduledTransferPartitionRepository;
+import com.banking.securebankingapi.repository.ScheduledTransferRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes due standing orders on a pool of worker threads, on every instance.
+ *
+ * Orders are split into {@link ScheduledTransferService#PARTITIONS} partitions by sender account.
+ * A worker leases a free partition that has due work (the claim row-locks it with SKIP LOCKED, so
+ * workers racing for it move on to another one instead of queueing), runs up to batch-size of its
+ * due occurrences one by one in due order, and releases it. Partitions run in parallel; the orders
+ * of one account never do, so they execute in the order they fell due.
+ *
+ * A worker stops well before its lease runs out, and an instance that dies simply lets its leases
+ * expire. Leases compare wall clocks, so instances' clocks must agree to well within lease-ms. Even
+ * if two workers did run the same occurrence, the conditional advance lets only one of them act.
+ */
+@Component
+public class ScheduledTransferRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTransferRunner.class);
+
+    private final ScheduledTransferService scheduledTransferService;
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final ScheduledTransferPartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long intervalMs;
+    private final long leaseMs;
+    private final ScheduledExecutorService executor;
+
+    // Identifies this instance's leases
+    private final String owner = UUID.randomUUID().toString();
+
+    public ScheduledTransferRunner(ScheduledTransferService scheduledTransferService,
+                                   ScheduledTransferRepository scheduledTransferRepository,
+                                   ScheduledTransferPartitionRepository partitionRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${banking.scheduled-transfers.enabled:true}") boolean enabled,
+                                   @Value("${banking.scheduled-transfers.workers:4}") int workers,
+                                   @Value("${banking.scheduled-transfers.batch-size:500}") int batchSize,
+                                   @Value("${banking.scheduled-transfers.interval-ms:1000}") long intervalMs,
+                                   @Value("${banking.scheduled-transfers.lease-ms:30000}") long leaseMs) {
+        this.scheduledTransferService = scheduledTransferService;
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.partitionRepository = partitionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.intervalMs = Math.max(1, intervalMs);
+        this.leaseMs = Math.max(1000, leaseMs);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(this.workers, runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfers-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduledTransferService.ensurePartitions();
+        if (enabled) {
+            for (int i = 0; i < workers; i++) {
+                executor.schedule(this::work, intervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Keep going while there is work, then poll every interval-ms
+    private void work() {
+        long delay = intervalMs;
+        try {
+            if (runOnce() > 0) {
+                delay = 0;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Scheduled transfer worker failed, retrying in {} ms", intervalMs, e);
+        }
+        if (!executor.isShutdown()) {
+            executor.schedule(this::work, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Run until no partition has due work that could be claimed.
+     * @return number of occurrences handled
+     */
+    public int drain() {
+        int total = 0;
+        int count;
+        while ((count = runOnce()) > 0) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Claim one partition with due work and run a batch of it.
+     * @return number of occurrences handled, 0 if no partition could be claimed
+     */
+    public int runOnce() {
+        List<Integer> candidates = partitionRepository.findFreeWithDueWork(LocalDateTime.now());
+        // Workers start from different partitions instead of all contending for the first
+        Collections.shuffle(candidates);
+        for (Integer partition : candidates) {
+            LocalDateTime leaseUntil = transactionTemplate.execute(status -> claim(partition));
+            if (leaseUntil != null) {
+                try {
+                    return runPartition(partition, leaseUntil);
+                } finally {
+                    transactionTemplate.executeWithoutResult(status -> partitionRepository.release(partition, owner));
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Null if the partition is being claimed or already held by someone else
+    private LocalDateTime claim(Integer partition) {
+        ScheduledTransferPartition row = partitionRepository.findForClaim(partition).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        if (row == null || (row.getLeaseUntil() != null && !row.getLeaseUntil().isBefore(now))) {
+            return null;
+        }
+        row.setOwner(owner);
+        row.setLeaseUntil(now.plusNanos(leaseMs * 1_000_000));
+        return row.getLeaseUntil();
+    }
+
+    private int runPartition(int partition, LocalDateTime leaseUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledTransfer> batch = scheduledTransferRepository.findDue(partition, now, PageRequest.of(0, batchSize));
+        // Behind a full batch there may be more due orders, so a later occurrence waits for the next batch
+        LocalDateTime horizon = batch.size() == batchSize ? batch.get(batch.size() - 1).getNextRunAt() : now;
+        LocalDateTime stopAt = leaseUntil.minusNanos(leaseMs / 3 * 1_000_000);
+        PriorityQueue<ScheduledTransfer> due = new PriorityQueue<>(
+                Comparator.comparing(ScheduledTransfer::getNextRunAt).thenComparing(ScheduledTransfer::getId));
+        due.addAll(batch);
+
+        int handled = 0;
+        while (!due.isEmpty() && LocalDateTime.now().isBefore(stopAt) && !executor.isShutdown()) {
+            ScheduledTransfer order = due.poll();
+            ScheduledTransferService.Outcome outcome = scheduledTransferService.execute(order);
+            if (outcome == ScheduledTransferService.Outcome.RETRY) {
+                break; // The account's later occurrences must not overtake this one
+            }
+            handled++;
+            // An order that missed several intervals is due again right away
+            if (outcome != ScheduledTransferService.Outcome.SKIPPED && order.getNextRunAt() != null
+                    && !order.getNextRunAt().isAfter(horizon)) {
+                due.add(order);
+            }
+        }
+        return handled;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
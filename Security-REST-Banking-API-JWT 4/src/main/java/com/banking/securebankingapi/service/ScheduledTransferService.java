@@ -0,0 +1,248 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.dto.ScheduledTransferRequest;
+import com.banking.securebankingapi.dto.ScheduledTransferView;
+import com.banking.securebankingapi.entity.ScheduledTransfer;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.ScheduledTransferRepository;
+import com.banking.securebankingapi.util.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Standing orders: creating, listing and cancelling them, and executing one due occurrence.
+ *
+ * An occurrence runs in one transaction that first advances the order past it (a conditional
+ * update on runCount) and then makes the transfer, so it takes effect at most once however many
+ * runners pick it up. A transfer rejected by business rules (insufficient balance, recipient gone)
+ * skips the occurrence with status FAILED and the order carries on with the next one.
+ */
+@Service
+public class ScheduledTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTransferService.class);
+
+    // Orders are stored with their partition, so the number of partitions cannot change
+    public static final int PARTITIONS = 64;
+
+    public enum Outcome {
+        COMPLETED, // Transfer made, order advanced
+        FAILED,    // Transfer rejected, occurrence skipped
+        SKIPPED,   // Another runner got there first, or the order was cancelled
+        RETRY      // Database trouble; nothing changed, run it again later
+    }
+
+    enum Frequency {
+        DAILY, WEEKLY, MONTHLY;
+
+        LocalDateTime occurrence(LocalDateTime start, long n) {
+            return switch (this) {
+                case DAILY -> start.plusDays(n);
+                case WEEKLY -> start.plusWeeks(n);
+                case MONTHLY -> start.plusMonths(n); // From the start each time, so the 31st stays the 31st where it exists
+            };
+        }
+    }
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter completed;
+    private Counter failed;
+    private Counter skipped;
+    private Counter retried;
+    // How late occurrences run compared to their due time
+    private Timer delay;
+
+    @PostConstruct
+    void registerMetrics() {
+        completed = outcomeCounter(Outcome.COMPLETED);
+        failed = outcomeCounter(Outcome.FAILED);
+        skipped = outcomeCounter(Outcome.SKIPPED);
+        retried = outcomeCounter(Outcome.RETRY);
+        delay = Timer.builder("banking.scheduled-transfers.delay")
+                .description("Time from an occurrence being due to it being executed")
+                .register(meterRegistry);
+    }
+
+    private Counter outcomeCounter(Outcome outcome) {
+        return Counter.builder("banking.scheduled-transfers.executions")
+                .description("Standing order occurrences handled by the runners")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    public ScheduledTransferView create(Long fromAccountId, ScheduledTransferRequest request) {
+        long amount = Money.fromDecimal(request.amount());
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        Frequency frequency = parseFrequency(request.frequency());
+        // Whole seconds, so occurrences computed from it match what the database stores
+        LocalDateTime startAt = (request.startAt() != null ? request.startAt() : LocalDateTime.now()).truncatedTo(ChronoUnit.SECONDS);
+        if (request.endsAt() != null && request.endsAt().isBefore(startAt)) {
+            throw new IllegalArgumentException("endsAt must not be before startAt");
+        }
+        if (request.toUsername() == null || accountRepository.findIdByUsername(request.toUsername()).isEmpty()) {
+            throw new AccountNotFoundException("Recipient not found");
+        }
+
+        ScheduledTransfer order = new ScheduledTransfer();
+        order.setFromAccountId(fromAccountId);
+        order.setToUsername(request.toUsername());
+        order.setAmount(amount);
+        order.setFrequency(frequency.name());
+        order.setStartAt(startAt);
+        order.setEndsAt(request.endsAt());
+        order.setNextRunAt(startAt);
+        order.setPartitionNo(partitionOf(fromAccountId));
+        order.setCreatedAt(LocalDateTime.now());
+        return view(scheduledTransferRepository.save(order));
+    }
+
+    public List<ScheduledTransferView> list(Long fromAccountId) {
+        return scheduledTransferRepository.findByFromAccountIdOrderById(fromAccountId).stream().map(this::view).toList();
+    }
+
+    /**
+     * @return false if the account has no such order
+     */
+    @Transactional
+    public boolean cancel(Long fromAccountId, Long id) {
+        return scheduledTransferRepository.deleteByIdAndFromAccountId(id, fromAccountId) > 0;
+    }
+
+    /**
+     * Execute the occurrence the order is at and, unless the outcome is SKIPPED or RETRY,
+     * move the given object on to the next one (runCount and nextRunAt as now stored).
+     */
+    public Outcome execute(ScheduledTransfer order) {
+        long runCount = order.getRunCount();
+        LocalDateTime due = order.getNextRunAt();
+        LocalDateTime next = nextRun(order, runCount + 1);
+        String status = "COMPLETED";
+        String error = null;
+        try {
+            boolean advanced = transactionTemplate.execute(tx -> {
+                // Advance first: the row lock makes a second runner of this occurrence wait, then match nothing
+                if (scheduledTransferRepository.advance(order.getId(), runCount, next, LocalDateTime.now(), "COMPLETED", null) == 0) {
+                    return false;
+                }
+                accountService.transfer(order.getFromAccountId(), order.getToUsername(), order.getAmount());
+                return true;
+            });
+            if (!advanced) {
+                skipped.increment();
+                return Outcome.SKIPPED;
+            }
+        } catch (RuntimeException e) {
+            if (!isRejection(e)) {
+                log.warn("Scheduled transfer {} could not be executed, it will be retried", order.getId(), e);
+                retried.increment();
+                return Outcome.RETRY;
+            }
+            // The transfer rolled back together with the advance; skip this occurrence on its own
+            status = "FAILED";
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            String reason = error.length() > 255 ? error.substring(0, 255) : error;
+            Integer advanced = transactionTemplate.execute(tx ->
+                    scheduledTransferRepository.advance(order.getId(), runCount, next, LocalDateTime.now(), "FAILED", reason));
+            if (advanced == null || advanced == 0) {
+                skipped.increment();
+                return Outcome.SKIPPED;
+            }
+        }
+
+        LocalDateTime ranAt = LocalDateTime.now();
+        delay.record(Duration.between(due, ranAt).isNegative() ? Duration.ZERO : Duration.between(due, ranAt));
+        order.setRunCount(runCount + 1);
+        order.setNextRunAt(next);
+        order.setLastRunAt(ranAt);
+        order.setLastStatus(status);
+        order.setLastError(error);
+        if ("COMPLETED".equals(status)) {
+            completed.increment();
+            return Outcome.COMPLETED;
+        }
+        failed.increment();
+        return Outcome.FAILED;
+    }
+
+    // AccountService signals business rule violations with these; anything else is the database
+    private static boolean isRejection(RuntimeException e) {
+        return e instanceof IllegalArgumentException || e instanceof AccountNotFoundException;
+    }
+
+    // Null once past endsAt: the order has finished
+    private static LocalDateTime nextRun(ScheduledTransfer order, long occurrence) {
+        LocalDateTime next = Frequency.valueOf(order.getFrequency()).occurrence(order.getStartAt(), occurrence);
+        return order.getEndsAt() != null && next.isAfter(order.getEndsAt()) ? null : next;
+    }
+
+    private static Frequency parseFrequency(String frequency) {
+        try {
+            return Frequency.valueOf(frequency.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("frequency must be DAILY, WEEKLY or MONTHLY");
+        }
+    }
+
+    public static int partitionOf(Long accountId) {
+        return (int) Math.floorMod(accountId, (long) PARTITIONS);
+    }
+
+    /**
+     * Create the partition rows that are missing (the migration creates them; ddl-auto does not).
+     */
+    public void ensurePartitions() {
+        Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList("select id from scheduled_transfer_partition", Integer.class));
+        for (int id = 0; id < PARTITIONS; id++) {
+            if (!existing.contains(id)) {
+                try {
+                    jdbcTemplate.update("insert into scheduled_transfer_partition (id) values (?)", id);
+                } catch (DuplicateKeyException e) {
+                    // Another instance created it
+                }
+            }
+        }
+    }
+
+    private ScheduledTransferView view(ScheduledTransfer order) {
+        return new ScheduledTransferView(order.getId(), order.getToUsername(), Money.toDecimal(order.getAmount()),
+                order.getFrequency(), order.getStartAt(), order.getEndsAt(), order.getNextRunAt(), order.getRunCount(),
+                order.getLastRunAt(), order.getLastStatus(), order.getLastError());
+    }
+}
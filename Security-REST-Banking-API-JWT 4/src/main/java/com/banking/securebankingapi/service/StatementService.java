@@ -0,0 +1,140 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.dto.TransactionView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Streams an account statement (oldest first) straight from a forward-only JDBC cursor
+ * to an output stream. Rows are written as they are fetched and never collected,
+ * so memory use is the fetch buffer plus one row, whatever the size of the range.
+ */
+@Service
+public class StatementService {
+
+    public enum Format { CSV, NDJSON }
+
+    // Outgoing and incoming rows each come off their history index; self-transfers are listed once
+    private static final String STATEMENT_SQL =
+            "select id, type, amount, timestamp, from_account_id, to_account_id from transaction"
+            + " where from_account_id = ? and timestamp >= ? and timestamp < ?"
+            + " union all"
+            + " select id, type, amount, timestamp, from_account_id, to_account_id from transaction"
+            + " where to_account_id = ? and (from_account_id is null or from_account_id <> ?)"
+            + " and timestamp >= ? and timestamp < ?"
+            + " order by timestamp, id";
+
+    private static final String CSV_HEADER = "id,timestamp,type,amount,from_account_id,to_account_id\n";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Rows per network round trip; with MySQL this needs useCursorFetch=true to stream instead of buffering
+    @Value("${banking.statement.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Write the account's transactions with from <= timestamp < to.
+     * The caller owns (and closes) the output stream.
+     */
+    // Served by a replica when replicas are configured; may stream for as long as the async request timeout
+    @Transactional(readOnly = true, timeout = 600)
+    public void writeStatement(Long accountId, LocalDateTime from, LocalDateTime to, Format format, OutputStream out)
+            throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                stream(accountId, from, to, rs -> writeCsvRow(writer, rs));
+            } else {
+                SequenceWriter json = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+                stream(accountId, from, to, rs -> json.write(toView(rs)));
+                json.flush();
+                writer.write('\n');
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away mid-stream
+        }
+        writer.flush();
+    }
+
+    private void stream(Long accountId, LocalDateTime from, LocalDateTime to, RowWriter rowWriter) {
+        Timestamp fromTs = Timestamp.valueOf(from);
+        Timestamp toTs = Timestamp.valueOf(to);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STATEMENT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, accountId);
+            ps.setTimestamp(2, fromTs);
+            ps.setTimestamp(3, toTs);
+            ps.setLong(4, accountId);
+            ps.setLong(5, accountId);
+            ps.setTimestamp(6, fromTs);
+            ps.setTimestamp(7, toTs);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsvRow(Writer writer, ResultSet rs) throws SQLException, IOException {
+        TransactionView view = toView(rs);
+        writer.write(String.valueOf(view.id()));
+        writer.write(',');
+        writer.write(view.timestamp().toString());
+        writer.write(',');
+        writer.write(view.type()); // Fixed set of values (DEPOSIT, WITHDRAW, TRANSFER), nothing to escape
+        writer.write(',');
+        writer.write(view.amount().toPlainString());
+        writer.write(',');
+        writer.write(view.fromAccountId() == null ? "" : view.fromAccountId().toString());
+        writer.write(',');
+        writer.write(view.toAccountId() == null ? "" : view.toAccountId().toString());
+        writer.write('\n');
+    }
+
+    private static TransactionView toView(ResultSet rs) throws SQLException {
+        return new TransactionView(
+                rs.getLong("id"),
+                rs.getString("type"),
+                rs.getLong("amount"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getObject("from_account_id", Long.class),
+                rs.getObject("to_account_id", Long.class));
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
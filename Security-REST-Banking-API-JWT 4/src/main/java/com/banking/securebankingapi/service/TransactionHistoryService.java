@@ -0,0 +1,104 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.dto.TransactionPage;
+import com.banking.securebankingapi.dto.TransactionView;
+import com.banking.securebankingapi.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination over an account's transactions, newest first.
+ * Each page reads at most limit + 1 rows from each of the two history indexes,
+ * so latency does not depend on how many transactions the account has.
+ */
+@Service
+public class TransactionHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<TransactionView> NEWEST_FIRST = Comparator
+            .comparing(TransactionView::timestamp)
+            .thenComparing(TransactionView::id)
+            .reversed();
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Transactional(readOnly = true) // Served by a replica when replicas are configured
+    public TransactionPage getHistory(Long accountId, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra row per side tells us whether another page exists
+        Pageable page = PageRequest.of(0, size + 1);
+        List<TransactionView> outgoing;
+        List<TransactionView> incoming;
+        if (cursor == null || cursor.isEmpty()) {
+            outgoing = transactionRepository.findLatestFrom(accountId, page);
+            incoming = transactionRepository.findLatestTo(accountId, page);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            outgoing = transactionRepository.findFromBefore(accountId, position.timestamp(), position.id(), page);
+            incoming = transactionRepository.findToBefore(accountId, position.timestamp(), position.id(), page);
+        }
+
+        List<TransactionView> items = merge(outgoing, incoming, size + 1);
+        if (items.size() <= size) {
+            return new TransactionPage(items, null);
+        }
+        items = items.subList(0, size);
+        TransactionView last = items.get(size - 1);
+        return new TransactionPage(items, new Cursor(last.timestamp(), last.id()).encode());
+    }
+
+    // Merge two newest-first lists; a transfer to oneself shows up on both sides and is kept once
+    private static List<TransactionView> merge(List<TransactionView> a, List<TransactionView> b, int max) {
+        List<TransactionView> merged = new ArrayList<>(Math.min(max, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < max && (i < a.size() || j < b.size())) {
+            TransactionView next;
+            if (j >= b.size() || (i < a.size() && NEWEST_FIRST.compare(a.get(i), b.get(j)) <= 0)) {
+                next = a.get(i++);
+            } else {
+                next = b.get(j++);
+            }
+            if (merged.isEmpty() || !merged.get(merged.size() - 1).id().equals(next.id())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    // Opaque cursor: the (timestamp, id) of the last row on the previous page
+    private record Cursor(LocalDateTime timestamp, Long id) {
+
+        String encode() {
+            String raw = timestamp + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.banking.securebankingapi.service;
 
+import com.banking.securebankingapi.dto.UserCredentials;
 import com.banking.securebankingapi.entity.Account;
 import com.banking.securebankingapi.entity.User;
 import com.banking.securebankingapi.repository.AccountRepository;
 import com.banking.securebankingapi.repository.UserRepository;
+import com.banking.securebankingapi.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class UserService {
@@ -20,31 +30,86 @@ public class UserService {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Spring's application executor; the JDBC save must not occupy a password hashing thread
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor applicationTaskExecutor;
+
+    /**
+     * @throws UsernameTakenException if another user already has this username
+     */
     public User register(User user) {
-        // Encode password and set default role
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        requireAvailable(user.getUsername());
+        // Encode password on the calling thread
+        return save(user, passwordEncoder.encode(user.getPassword()));
+    }
+
+    /**
+     * Register with the password hashed on the bounded hashing pool instead of the calling thread.
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated
+     * @throws UsernameTakenException if another user already has this username
+     */
+    public CompletableFuture<User> registerAsync(User user) {
+        requireAvailable(user.getUsername());
+        return passwordHasher.encode(user.getPassword())
+                .thenApplyAsync(encodedPassword -> save(user, encodedPassword), applicationTaskExecutor);
+    }
+
+    // Spare the password hashing for a name that is taken; a new name is usually cleared by the filter alone
+    private void requireAvailable(String username) {
+        if (usernameFilter.mightExist(username) && userRepository.existsByUsername(username)) {
+            throw new UsernameTakenException(username);
+        }
+    }
+
+    private User save(User user, String encodedPassword) {
+        // Set encoded password and default role
+        user.setPassword(encodedPassword);
         user.setRole("ROLE_USER");
+        user.setCreatedAt(LocalDateTime.now());
 
-        // Save user
-        User savedUser = userRepository.save(user);
-
-        // Only create an account if the user doesn't already have one
-        accountRepository.findByUser(savedUser).ifPresentOrElse(
-                existingAccount -> {
-                    // Do nothing if account already exists
-                },
-                () -> {
-                    Account account = new Account();
-                    account.setUser(savedUser);
-                    account.setBalance(0.0);
-                    accountRepository.save(account);
-                }
-        );
+        // User and account in one transaction; the unique username index settles concurrent registrations
+        User savedUser;
+        try {
+            savedUser = transactionTemplate.execute(status -> {
+                User saved = userRepository.save(user);
+                Account account = new Account();
+                account.setUser(saved);
+                account.setBalance(0);
+                accountRepository.save(account);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (userRepository.existsByUsername(user.getUsername())) {
+                throw new UsernameTakenException(user.getUsername());
+            }
+            throw e;
+        }
 
+        usernameFilter.add(savedUser.getUsername());
         return savedUser;
     }
 
     public User findByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
     }
+
+    // Everything login needs in one query, or null if the user does not exist
+    public UserCredentials findCredentials(String username) {
+        return userRepository.findCredentialsByUsername(username).orElse(null);
+    }
+
+    // Same by user id, or null if the user no longer exists
+    public UserCredentials findCredentials(Long userId) {
+        return userRepository.findCredentialsById(userId).orElse(null);
+    }
 }
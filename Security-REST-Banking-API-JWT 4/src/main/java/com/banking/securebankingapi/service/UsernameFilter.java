@@ -0,0 +1,211 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.dto.UsernameRef;
+import com.banking.securebankingapi.repository.UserRepository;
+import com.banking.securebankingapi.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Every username, mirrored in a Bloom filter so that names which do not exist (a mistyped transfer
+ * recipient, a fresh name at registration) are recognised without a database query. "Might exist"
+ * still has to be checked against the database.
+ *
+ * The filter is loaded in the background once the application is ready and answers "might exist"
+ * until then. Registrations on this instance are added as they commit; those made on other
+ * instances are picked up by their created_at every banking.usernames.refresh-interval-ms, so a
+ * brand-new user can be reported missing by another instance for up to that long. Users inserted
+ * other than through {@link UserService} have no created_at and are seen after the next rebuild.
+ */
+@Component
+public class UsernameFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    // Registrations are re-read with this overlap, so rows committed late by other instances are not missed
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long refreshIntervalMs;
+
+    private final Counter filteredLookups;
+
+    // Null until the first load completes; replaced wholesale on rebuild, reads never lock
+    private volatile BloomFilter filter;
+    // Non-null while a rebuild reads the table: names added meanwhile, replayed into the new filter
+    private List<String> addedDuringRebuild;
+    private LocalDateTime lastRefresh;
+
+    public UsernameFilter(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${banking.usernames.filter.enabled:true}") boolean enabled,
+                          @Value("${banking.usernames.expected-entries:1000000}") int expectedEntries,
+                          @Value("${banking.usernames.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${banking.usernames.refresh-interval-ms:5000}") long refreshIntervalMs) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.filteredLookups = Counter.builder("banking.usernames.filtered")
+                .description("Username lookups answered by the Bloom filter without a database query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false only if no user with this name exists (as of the last refresh for other instances)
+     */
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        String key = key(username);
+        if (current == null || key == null || current.mightContain(key)) {
+            return true;
+        }
+        filteredLookups.increment();
+        return false;
+    }
+
+    /**
+     * Make a committed registration visible to this instance's filter.
+     */
+    public synchronized void add(String username) {
+        String key = key(username);
+        if (key == null) {
+            return;
+        }
+        if (filter != null) {
+            filter.put(key);
+        }
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(key);
+        }
+    }
+
+    // Loading a large user table takes seconds; do it off the startup path, retrying until it succeeds
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            while (filter == null) {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Loading the username filter failed, retrying in {} ms", refreshIntervalMs, e);
+                    try {
+                        Thread.sleep(refreshIntervalMs);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        }, "username-filter-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Load a fresh, right-sized filter from the user table, page by page in id order.
+     * Registrations are not blocked meanwhile; those added during the load are carried over.
+     */
+    public void rebuild() {
+        LocalDateTime start;
+        synchronized (this) {
+            if (addedDuringRebuild != null) {
+                return; // Already running
+            }
+            addedDuringRebuild = new ArrayList<>();
+            start = LocalDateTime.now();
+        }
+        BloomFilter loaded = null;
+        try {
+            int users = (int) Math.min(userRepository.count(), Integer.MAX_VALUE / 2);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, users * 2), falsePositiveRate);
+            long afterId = 0;
+            List<UsernameRef> page;
+            do {
+                page = userRepository.findUsernamesAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (UsernameRef ref : page) {
+                    String key = key(ref.username());
+                    if (key != null) {
+                        rebuilt.put(key);
+                    }
+                    afterId = ref.id();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            loaded = rebuilt;
+        } finally {
+            synchronized (this) {
+                if (loaded != null) { // A partial load would miss names, so a failed one is dropped
+                    addedDuringRebuild.forEach(loaded::put);
+                    filter = loaded;
+                    lastRefresh = start;
+                }
+                addedDuringRebuild = null;
+            }
+        }
+    }
+
+    // Pick up registrations made by other instances; the query runs unlocked, so add() never waits on it
+    @Scheduled(fixedDelayString = "${banking.usernames.refresh-interval-ms:5000}")
+    public void refresh() {
+        LocalDateTime since;
+        synchronized (this) {
+            if (filter == null || addedDuringRebuild != null) {
+                return; // Not loaded yet, or a rebuild will include them
+            }
+            since = lastRefresh;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> usernames = userRepository.findUsernamesCreatedSince(since.minusSeconds(REFRESH_OVERLAP_SECONDS));
+        boolean full;
+        synchronized (this) {
+            // A rebuild may have started or finished meanwhile; add() puts the names wherever they belong
+            usernames.forEach(this::add);
+            if (now.isAfter(lastRefresh)) {
+                lastRefresh = now;
+            }
+            full = filter.size() > filter.capacity();
+        }
+        if (full) {
+            rebuild(); // Past its sizing the filter would return more and more false positives
+        }
+    }
+
+    // MySQL compares usernames case-insensitively and ignores trailing spaces, so the filter does too.
+    // Its accent-insensitive collations fold far more than that: names outside ASCII are left to the database
+    private static String key(String username) {
+        if (username == null) {
+            return null;
+        }
+        int end = username.length();
+        while (end > 0 && username.charAt(end - 1) == ' ') {
+            end--;
+        }
+        for (int i = 0; i < end; i++) {
+            if (username.charAt(i) > 0x7f) {
+                return null;
+            }
+        }
+        return username.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
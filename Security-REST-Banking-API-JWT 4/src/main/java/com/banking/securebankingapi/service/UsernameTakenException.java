@@ -0,0 +1,11 @@
+package com.banking.securebankingapi.service;
+
+/**
+ * Registration with a username that already belongs to another user.
+ */
+public class UsernameTakenException extends RuntimeException {
+
+    public UsernameTakenException(String username) {
+        super("Username " + username + " is already taken");
+    }
+}
@@ -0,0 +1,38 @@
+package com.banking.securebankingapi.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is carried everywhere as a primitive {@code long} number of minor units (cents).
+ * This class only converts at the API boundary; arithmetic on balances stays on primitives.
+ */
+public final class Money {
+
+    // Number of minor-unit digits (cents)
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Convert a decimal amount in major units (e.g. 12.34) to minor units (1234).
+     * @throws IllegalArgumentException if the amount is missing, has more than two decimals or overflows
+     */
+    public static long fromDecimal(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places");
+        }
+    }
+
+    /**
+     * Convert minor units back to a decimal amount in major units for responses.
+     */
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
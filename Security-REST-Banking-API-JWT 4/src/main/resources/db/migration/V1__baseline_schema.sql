@@ -0,0 +1,46 @@
+-- Baseline: the schema the original application created with ddl-auto=update on MySQL 8 / InnoDB.
+-- Databases that already hold these tables are adopted at version 1 without running this
+-- script (spring.flyway.baseline-on-migrate). Schema changes go into new V<n>__*.sql files.
+
+create table account (
+    balance double not null,
+    id bigint not null auto_increment,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table transaction (
+    amount double not null,
+    from_account_id bigint,
+    id bigint not null auto_increment,
+    timestamp datetime(6),
+    to_account_id bigint,
+    type varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table user (
+    id bigint not null auto_increment,
+    password varchar(255),
+    role varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table account
+   add constraint UK_h6dr47em6vg85yuwt4e2roca4 unique (user_id);
+
+alter table account
+   add constraint FK7m8ru44m93ukyb61dfxw0apf6
+   foreign key (user_id)
+   references user (id);
+
+alter table transaction
+   add constraint FKrff4jlxetafju1e5cks5mfcnk
+   foreign key (from_account_id)
+   references account (id);
+
+alter table transaction
+   add constraint FKluqt8k2pa8d4gmggx4rhl5vgv
+   foreign key (to_account_id)
+   references account (id);
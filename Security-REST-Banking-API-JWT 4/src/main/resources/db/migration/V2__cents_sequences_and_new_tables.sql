@@ -0,0 +1,164 @@
+-- Brings the original schema (V1) up to date with money in cents, optimistic versions,
+-- pooled transaction ids and the tables added since. Stop the old application first:
+-- the balance conversion below must not interleave with writes in dollars.
+
+-- Money as whole cents in BIGINT instead of DOUBLE dollars
+update account set balance = round(balance * 100);
+alter table account modify balance bigint not null;
+update transaction set amount = round(amount * 100);
+alter table transaction modify amount bigint not null;
+
+-- Version counter bumped by every balance update
+alter table account add column version bigint not null default 0;
+
+-- Transaction ids come from a pooled sequence (emulated by a table on MySQL) instead of
+-- auto_increment, so inserts can be batched. The pooled generator hands out the 50 ids
+-- below next_val, so seed it 50 past the current maximum
+alter table transaction modify id bigint not null;
+
+create table transaction_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into transaction_seq select coalesce(max(id), 0) + 51 from transaction;
+
+create index idx_transaction_from_account_ts_id
+   on transaction (from_account_id, timestamp, id);
+
+create index idx_transaction_to_account_ts_id
+   on transaction (to_account_id, timestamp, id);
+
+create index idx_transaction_timestamp
+   on transaction (timestamp);
+
+-- Hot accounts: credits striped over sub-balance rows
+create table account_stripe (
+    stripe integer not null,
+    account_id bigint not null,
+    balance bigint not null,
+    id bigint not null auto_increment,
+    primary key (id)
+) engine=InnoDB;
+
+alter table account_stripe
+   add constraint uk_account_stripe unique (stripe, account_id);
+
+-- Daily and monthly summaries, and the checkpoint of the job that folds them
+create table account_summary_rollup (
+    period varchar(1) not null,
+    period_start date not null,
+    account_id bigint not null,
+    deposited bigint not null,
+    id bigint not null auto_increment,
+    received bigint not null,
+    sent bigint not null,
+    transaction_count bigint not null,
+    withdrawn bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table account_summary_rollup
+   add constraint uk_summary_account_period unique (period, period_start, account_id);
+
+create table aggregation_checkpoint (
+    version bigint,
+    watermark datetime(6) not null,
+    name varchar(255) not null,
+    primary key (name)
+) engine=InnoDB;
+
+-- Results of requests sent with an Idempotency-Key
+create table idempotency_record (
+    account_id bigint not null,
+    created_at datetime(6),
+    expires_at datetime(6) not null,
+    id bigint not null auto_increment,
+    request_hash varchar(64) not null,
+    idempotency_key varchar(255) not null,
+    response_body mediumtext,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_idempotency_expires_at
+   on idempotency_record (expires_at);
+
+alter table idempotency_record
+   add constraint uk_idempotency_account_key unique (account_id, idempotency_key);
+
+-- Append-only ledger (banking.ledger.enabled)
+create table ledger_entry_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into ledger_entry_seq values ( 1 );
+
+create table ledger_entry (
+    account_id bigint not null,
+    amount bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null,
+    transaction_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_ledger_entry_account_created
+   on ledger_entry (account_id, created_at);
+
+create index idx_ledger_entry_created
+   on ledger_entry (created_at);
+
+create table ledger_snapshot (
+    account_id bigint not null,
+    balance bigint not null,
+    up_to datetime(6) not null,
+    version bigint,
+    primary key (account_id)
+) engine=InnoDB;
+
+-- Transactional outbox of money movements
+create table outbox_event (
+    amount bigint not null,
+    created_at datetime(6) not null,
+    from_account_id bigint not null,
+    id bigint not null auto_increment,
+    to_account_id bigint,
+    transaction_id bigint not null,
+    type varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Rotating refresh tokens and revoked access tokens
+create table refresh_token (
+    created_at datetime(6),
+    expires_at datetime(6) not null,
+    id bigint not null auto_increment,
+    revoked_at datetime(6),
+    used_at datetime(6),
+    user_id bigint not null,
+    family_id varchar(36) not null,
+    token_hash varchar(64) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_refresh_token_family
+   on refresh_token (family_id);
+
+create index idx_refresh_token_expires_at
+   on refresh_token (expires_at);
+
+alter table refresh_token
+   add constraint UK_kdj16cltjxdksuyiosdhliveg unique (token_hash);
+
+create table revoked_token (
+    expires_at datetime(6) not null,
+    revoked_at datetime(6) not null,
+    user_id bigint,
+    jti varchar(36) not null,
+    primary key (jti)
+) engine=InnoDB;
+
+create index idx_revoked_token_expires_at
+   on revoked_token (expires_at);
+
+create index idx_revoked_token_revoked_at
+   on revoked_token (revoked_at);
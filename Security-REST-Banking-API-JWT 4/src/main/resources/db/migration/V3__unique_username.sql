@@ -0,0 +1,6 @@
+-- Usernames become unique; merge or rename duplicate users before upgrading, otherwise this fails
+alter table user add constraint uk_user_username unique (username);
+
+-- Registration time, read by the username filter to pick up other instances' registrations
+alter table user add column created_at datetime(6);
+create index idx_user_created_at on user (created_at);
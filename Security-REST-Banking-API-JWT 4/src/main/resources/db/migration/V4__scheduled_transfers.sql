@@ -0,0 +1,33 @@
+-- Standing orders, found by the runners through (partition_no, next_run_at)
+create table scheduled_transfer (
+    id bigint not null auto_increment,
+    from_account_id bigint not null,
+    to_username varchar(255) not null,
+    amount bigint not null,
+    frequency varchar(255) not null,
+    start_at datetime(6) not null,
+    ends_at datetime(6),
+    next_run_at datetime(6),
+    run_count bigint not null,
+    partition_no integer not null,
+    last_run_at datetime(6),
+    last_status varchar(255),
+    last_error varchar(255),
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_scheduled_transfer_due on scheduled_transfer (partition_no, next_run_at);
+create index idx_scheduled_transfer_account on scheduled_transfer (from_account_id);
+
+-- Leases on the partitions, one row each (ScheduledTransferService.PARTITIONS)
+create table scheduled_transfer_partition (
+    id integer not null,
+    owner varchar(255),
+    lease_until datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+insert into scheduled_transfer_partition (id)
+with recursive n (id) as (select 0 union all select id + 1 from n where id < 63)
+select id from n;
@@ -0,0 +1,11 @@
+-- The outbox relay's lock row, previously kept among the aggregation checkpoints
+create table outbox_relay_lock (
+    name varchar(255) not null,
+    last_delivered datetime(6) not null,
+    primary key (name)
+) engine=InnoDB;
+
+insert into outbox_relay_lock (name, last_delivered)
+select name, watermark from aggregation_checkpoint where name = 'outbox-relay';
+
+delete from aggregation_checkpoint where name = 'outbox-relay';
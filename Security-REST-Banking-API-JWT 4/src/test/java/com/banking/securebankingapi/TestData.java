@@ -0,0 +1,65 @@
+package com.banking.securebankingapi;
+
+import com.banking.securebankingapi.entity.Account;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fixtures shared by the tests that run against the embedded database: emptying it between tests
+ * and creating users with their accounts directly, without registration and its password hashing.
+ */
+@Component
+public class TestData {
+
+    // Set up once at startup and needed by every test; Hibernate's *_seq tables are kept as well
+    private static final Set<String> KEPT_TABLES = Set.of("scheduled_transfer_partition");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    /**
+     * Delete every row of every table, including tables added after the calling test was written.
+     */
+    public void clear() {
+        List<String> tables = jdbcTemplate.queryForList("select table_name from information_schema.tables"
+                + " where table_schema = current_schema and table_type = 'BASE TABLE'", String.class);
+        jdbcTemplate.execute("set referential_integrity false");
+        try {
+            for (String table : tables) {
+                if (!table.endsWith("_seq") && !KEPT_TABLES.contains(table)) {
+                    jdbcTemplate.execute("truncate table " + table);
+                }
+            }
+        } finally {
+            jdbcTemplate.execute("set referential_integrity true");
+        }
+    }
+
+    public Long createAccount(String username) {
+        return createAccount(username, 0);
+    }
+
+    public Long createAccount(String username, long balance) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole("ROLE_USER");
+        Account account = new Account();
+        account.setUser(userRepository.save(user));
+        account.setBalance(balance);
+        return accountRepository.save(account).getId();
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.securebankingapi.benchmark;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.service.AccountService;
+import com.banking.securebankingapi.service.HotAccountService;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Credit throughput into one hot merchant account as the number of stripes grows.
+ * With one stripe every credit queues on the same row lock; more stripes let credits commit in parallel.
+ *
+ * Not part of the regular build. Run with:
+ *   mvn test -Dtest=HotAccountBenchmarkTest -Dbenchmark=true [-Dbenchmark.clients=64 -Dbenchmark.seconds=10]
+ * Point spring.datasource.* at MySQL for representative numbers; H2 holds row locks only briefly.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class HotAccountBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 64);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 5);
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @ParameterizedTest(name = "{0} stripes")
+    @ValueSource(ints = {1, 4, 16, 64})
+    void creditThroughputToOneMerchant(int stripes) throws Exception {
+        testData.clear();
+        Long merchant = testData.createAccount("merchant", 0);
+        List<Long> payers = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            payers.add(testData.createAccount("payer-" + i, 1_000_000_00L));
+        }
+        hotAccountService.designate(merchant, stripes);
+
+        // Each client pays from its own account, so the merchant side is the only contention point
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        AtomicInteger credits = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        for (Long payer : payers) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    accountService.transfer(payer, "merchant", 1);
+                    credits.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(SECONDS + 60, TimeUnit.SECONDS);
+
+        System.out.printf("%3d stripes, %d clients: %8.0f credits/s%n",
+                stripes, CLIENTS, credits.get() / (double) SECONDS);
+        assertEquals(credits.get(), accountService.getBalance(merchant));
+    }
+}
@@ -0,0 +1,122 @@
+package com.banking.securebankingapi.benchmark;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.service.ScheduledTransferRunner;
+import com.banking.securebankingapi.service.ScheduledTransferService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Executes a backlog of due standing orders with a pool of runner workers and reports how long it
+ * takes. Every account has several orders falling due one after another and pays the next account,
+ * so the run also checks that money is conserved, that each occurrence ran exactly once and that
+ * each account's transfers happened in due order.
+ *
+ * Not part of the regular build. Run with:
+ *   mvn test -Dtest=ScheduledTransferBenchmarkTest -Dbenchmark=true [-Dbenchmark.transfers=1000000 -Dbenchmark.workers=16]
+ * A million orders need a few GB of heap in the embedded H2 database (-DargLine=-Xmx6g);
+ * point spring.datasource.* at MySQL for representative numbers.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(classes = SecureBankingApiApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:scheduled_benchmark_db;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class ScheduledTransferBenchmarkTest {
+
+    private static final int TRANSFERS = Integer.getInteger("benchmark.transfers", 100_000);
+    private static final int WORKERS = Integer.getInteger("benchmark.workers", 16);
+    private static final int ORDERS_PER_ACCOUNT = 4;
+    private static final long INITIAL_BALANCE = 1_000_000;
+    private static final int SEED_BATCH = 10_000;
+
+    @Autowired
+    private ScheduledTransferRunner scheduledTransferRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void drainABacklogOfDueOrders() throws Exception {
+        int accounts = Math.max(2, TRANSFERS / ORDERS_PER_ACCOUNT);
+        List<Long> accountIds = seedAccounts(accounts);
+        seedOrders(accountIds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+        long start = System.nanoTime();
+        List<Future<Integer>> drains = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            drains.add(pool.submit(scheduledTransferRunner::drain));
+        }
+        int handled = 0;
+        for (Future<Integer> drain : drains) {
+            handled += drain.get();
+        }
+        pool.shutdown();
+        handled += scheduledTransferRunner.drain(); // Partitions skipped by a racing worker at the very end
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        System.out.printf("%d due transfers over %d accounts, %d workers: %.1f s, %.0f transfers/s%n",
+                accountIds.size() * ORDERS_PER_ACCOUNT, accountIds.size(), WORKERS, seconds, handled / seconds);
+
+        int orders = accountIds.size() * ORDERS_PER_ACCOUNT;
+        assertEquals(orders, handled);
+        assertEquals(orders, jdbcTemplate.queryForObject("select count(*) from transaction", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from scheduled_transfer where run_count <> 1 or next_run_at is not null", Long.class));
+        assertEquals(accountIds.size() * INITIAL_BALANCE,
+                jdbcTemplate.queryForObject("select sum(balance) from account", Long.class));
+        // An account's k-th order moves k cents, so amounts must grow along each account's history
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from (select amount, lag(amount) over"
+                + " (partition by from_account_id order by id) previous from transaction) t where previous >= amount", Long.class));
+    }
+
+    // Plain JDBC batches: registering hundreds of thousands of users through bcrypt would take hours
+    private List<Long> seedAccounts(int accounts) {
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < accounts; i++) {
+            batch.add(new Object[]{"scheduled-" + i});
+            if (batch.size() == SEED_BATCH || i == accounts - 1) {
+                jdbcTemplate.batchUpdate("insert into user (username, password, role) values (?, 'x', 'ROLE_USER')", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.update("insert into account (balance, user_id, version) select ?, id, 0 from user", INITIAL_BALANCE);
+        return jdbcTemplate.queryForList("select a.id from account a join user u on u.id = a.user_id order by u.id", Long.class);
+    }
+
+    // Each account pays the next one; its orders fall due a second apart and run once each
+    private void seedOrders(List<Long> accountIds) {
+        LocalDateTime base = LocalDateTime.now().withNano(0).minusHours(1);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < accountIds.size(); i++) {
+            Long accountId = accountIds.get(i);
+            String recipient = "scheduled-" + ((i + 1) % accountIds.size());
+            for (int k = 0; k < ORDERS_PER_ACCOUNT; k++) {
+                LocalDateTime due = base.plusSeconds(k);
+                batch.add(new Object[]{accountId, recipient, k + 1, due, due, due,
+                        ScheduledTransferService.partitionOf(accountId), base});
+            }
+            if (batch.size() >= SEED_BATCH || i == accountIds.size() - 1) {
+                jdbcTemplate.batchUpdate("insert into scheduled_transfer (from_account_id, to_username, amount, frequency,"
+                        + " start_at, ends_at, next_run_at, run_count, partition_no, created_at)"
+                        + " values (?, ?, ?, 'DAILY', ?, ?, ?, 0, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
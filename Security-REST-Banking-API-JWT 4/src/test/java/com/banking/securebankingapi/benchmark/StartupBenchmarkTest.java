@@ -0,0 +1,196 @@
+package com.banking.securebankingapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the packaged application as a separate JVM and reports time-to-first-request
+ * (process start until a registration succeeds) and steady-state RSS after a warm-up, for
+ *   default      : the configuration before the prod profile (ddl-auto=update, no Flyway, eager beans)
+ *   prod         : Flyway migrations, no schema checks, lazy beans, background JPA bootstrap
+ *   prod+aot+cds : the same with AOT-processed bean definitions and a CDS archive from a training run
+ * H2 in MySQL mode stands in for the database, so the numbers exclude network round trips.
+ *
+ * Not part of the regular build. Run with:
+ *   mvn -Pstartup package -DskipTests -Dcds.skip=true
+ *   mvn test -Dtest=StartupBenchmarkTest -Dbenchmark=true [-Dbenchmark.runs=5 -Dbenchmark.jvmArgs=-Xmx512m]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledOnOs(OS.LINUX) // RSS is read from /proc
+class StartupBenchmarkTest {
+
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 3);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup", 500);
+    private static final String JVM_ARGS = System.getProperty("benchmark.jvmArgs", "");
+    private static final Path LAYOUT = Path.of("target", "startup");
+    private static final Path WORK = Path.of("target", "startup-benchmark");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareStartupModes() throws Exception {
+        Path application = LAYOUT.resolve("application.jar");
+        assertTrue(Files.exists(application), "Build the startup layout first: mvn -Pstartup package -DskipTests -Dcds.skip=true");
+        try (JarFile jar = new JarFile(application.toFile())) {
+            assertTrue(jar.getEntry("com/banking/securebankingapi/SecureBankingApiApplication__ApplicationContextInitializer.class") != null,
+                    "application.jar has no AOT classes; build it with -Pstartup");
+        }
+        Files.createDirectories(WORK);
+        Path archive = WORK.resolve("application.jsa").toAbsolutePath();
+        Files.deleteIfExists(archive);
+
+        List<String> defaultMode = List.of("--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update");
+        List<String> prodMode = List.of("-Dspring.profiles.active=prod");
+        List<String> optimizedMode = List.of("-Dspring.profiles.active=prod", "-Dspring.aot.enabled=true");
+
+        // Training run: the JVM writes the archive of every class loaded until it exits after startup
+        Process training = start("training", join(optimizedMode,
+                List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dbanking.cds.training=true")));
+        assertTrue(training.waitFor(5, TimeUnit.MINUTES), "training run did not exit");
+        assertEquals(0, training.exitValue(), "training run failed, see " + WORK.resolve("training.log"));
+        assertTrue(Files.exists(archive), "no CDS archive written");
+
+        List<String> report = new ArrayList<>();
+        report.add(measure("default", defaultMode));
+        report.add(measure("prod", prodMode));
+        report.add(measure("prod+aot+cds", join(optimizedMode, List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:on"))));
+
+        System.out.println("\n=== Startup benchmark: median of " + RUNS + " runs, " + WARMUP_REQUESTS + " warm-up requests ===");
+        report.forEach(System.out::println);
+        Files.write(WORK.resolve("report.txt"), report);
+    }
+
+    private String measure(String mode, List<String> arguments) throws Exception {
+        double[] firstRequestMs = new double[RUNS];
+        double[] rssMb = new double[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            int port = freePort();
+            long start = System.nanoTime();
+            Process process = start(mode + "-" + run, join(arguments, List.of("--server.port=" + port)));
+            try {
+                String base = "http://localhost:" + port + "/api";
+                String credentials = "{\"username\":\"bench\",\"password\":\"secret\"}";
+                awaitFirstResponse(process, base + "/auth/register", credentials);
+                firstRequestMs[run] = (System.nanoTime() - start) / 1e6;
+
+                String token = objectMapper.readTree(post(base + "/auth/login", credentials, null).body()).get("token").asText();
+                for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                    post(base + "/account/deposit", "{\"amount\":1.00}", token);
+                    send(HttpRequest.newBuilder(URI.create(base + "/account/balance"))
+                            .header("Authorization", "Bearer " + token).GET().build());
+                }
+                Thread.sleep(5_000); // Let background work (scheduled jobs, JIT) settle
+                rssMb[run] = rssKb(process.pid()) / 1024.0;
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+        Arrays.sort(firstRequestMs);
+        Arrays.sort(rssMb);
+        return String.format("%-13s: first request after %6.0f ms (min %6.0f, max %6.0f)  steady-state RSS %5.0f MB",
+                mode, firstRequestMs[RUNS / 2], firstRequestMs[0], firstRequestMs[RUNS - 1], rssMb[RUNS / 2]);
+    }
+
+    // The application jar and its libraries as laid out by -Pstartup, plus H2 from the test class path
+    private Process start(String name, List<String> arguments) throws IOException {
+        String h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().getPath()).toString();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!JVM_ARGS.isBlank()) {
+            command.addAll(Arrays.asList(JVM_ARGS.trim().split("\\s+")));
+        }
+        arguments.stream().filter(argument -> !argument.startsWith("--")).forEach(command::add);
+        command.add("-cp");
+        command.add("application.jar" + File.pathSeparator + "lib/*" + File.pathSeparator + h2);
+        command.add("com.banking.securebankingapi.SecureBankingApiApplication");
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;DB_CLOSE_DELAY=-1");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect");
+        command.add("--management.server.port=" + freePort());
+        command.add("--banking.rate-limit.enabled=false");
+        command.add("--banking.outbox.file=" + WORK.resolve("outbox-events.ndjson").toAbsolutePath());
+        arguments.stream().filter(argument -> argument.startsWith("--")).forEach(command::add);
+        return new ProcessBuilder(command)
+                .directory(LAYOUT.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(WORK.resolve(name + ".log").toFile())
+                .start();
+    }
+
+    private void awaitFirstResponse(Process process, String url, String body) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            assertTrue(process.isAlive(), "application exited during startup");
+            try {
+                HttpResponse<String> response = post(url, body, null);
+                assertEquals(200, response.statusCode(), response.body());
+                return;
+            } catch (ConnectException e) {
+                Thread.sleep(10); // Not listening yet
+            }
+        }
+        throw new AssertionError("no response within 5 minutes");
+    }
+
+    private HttpResponse<String> post(String url, String body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return send(request.build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        throw new IllegalStateException("No VmRSS for process " + pid);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> join(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
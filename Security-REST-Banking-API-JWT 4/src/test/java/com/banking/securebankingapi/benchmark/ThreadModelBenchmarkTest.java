@@ -0,0 +1,144 @@
+package com.banking.securebankingapi.benchmark;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.security.JwtUtil;
+import com.banking.securebankingapi.service.AccountService;
+import com.banking.securebankingapi.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Compares thread-per-request (platform threads) against the virtual-threads profile
+ * for /balance and /transfer at high client concurrency: throughput plus p50/p99/p99.9 latency.
+ *
+ * Not part of the regular build. Run with:
+ *   mvn test -Dtest=ThreadModelBenchmarkTest -Dbenchmark=true [-Dbenchmark.clients=1000 -Dbenchmark.seconds=20]
+ * The virtual-thread run is skipped on JVMs older than 21.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModelBenchmarkTest {
+
+    private static final int USERS = 100;
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void compareThreadModels() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.addAll(run("platform", "test"));
+        if (Runtime.version().feature() >= 21) {
+            report.addAll(run("virtual", "test", "virtual-threads"));
+        } else {
+            report.add("virtual   : skipped, requires Java 21+ (running on " + Runtime.version() + ")");
+        }
+        System.out.println("\n=== Thread model benchmark: " + CLIENTS + " clients, " + SECONDS + "s per endpoint ===");
+        report.forEach(System.out::println);
+    }
+
+    private List<String> run(String mode, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SecureBankingApiApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "server.tomcat.max-connections=20000", "server.tomcat.accept-count=1000")
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String[] tokens = seed(context);
+
+            List<String> lines = new ArrayList<>();
+            lines.add(measure(mode, "balance", i -> HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/account/balance"))
+                    .header("Authorization", "Bearer " + tokens[i % USERS]).GET().build()));
+            lines.add(measure(mode, "transfer", i -> HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/account/transfer"))
+                    .header("Authorization", "Bearer " + tokens[i % USERS])
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"toUsername\":\"bench-" + ((i + 1) % USERS) + "\",\"amount\":0.01}"))
+                    .build()));
+            return lines;
+        }
+    }
+
+    // Each context starts on a fresh schema; users get funded accounts and
+    // tokens are minted directly to keep bcrypt out of the measurement
+    private String[] seed(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        AccountService accountService = context.getBean(AccountService.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        String[] tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("bench-" + i);
+            user.setPassword("secret");
+            user = userService.register(user);
+            Long accountId = userService.findCredentials(user.getUsername()).accountId();
+            accountService.deposit(accountId, 1_000_000_00L);
+            tokens[i] = jwtUtil.generateToken(user.getUsername(), List.of(user.getRole()), user.getId(), accountId);
+        }
+        return tokens;
+    }
+
+    // Closed-loop clients hammer one endpoint for a fixed time
+    private String measure(String mode, String endpoint, IntFunction<HttpRequest> requests) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        long[][] latencies = new long[CLIENTS][];
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientId = c;
+            clients.execute(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                int i = clientId;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        if (client.send(requests.apply(i++), HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                latencies[clientId] = Arrays.copyOf(samples, count);
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(SECONDS + 120, TimeUnit.SECONDS);
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return String.format("%-9s %-8s: %8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  p99.9 %7.1f ms  errors %d",
+                mode, endpoint, all.length / (double) SECONDS,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), errors.get());
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(sortedNanos.length * p) - 1);
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
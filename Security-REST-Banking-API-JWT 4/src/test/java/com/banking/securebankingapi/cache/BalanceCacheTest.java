@@ -0,0 +1,128 @@
+package com.banking.securebankingapi.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalanceCacheTest {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void olderVersionsNeverReplaceNewerBalances() {
+        BalanceCache cache = cache(100, null);
+
+        cache.put(1L, 500, 3);
+        cache.put(1L, 400, 2);
+        assertEquals(500L, cache.get(1L));
+
+        cache.put(1L, 700, 4);
+        assertEquals(700L, cache.get(1L));
+        assertEquals(2, cache.hitCount());
+        assertNull(cache.get(2L));
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void writesApplyOnlyAfterCommit() {
+        BalanceCache cache = cache(100, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putAfterCommit(1L, 900, 1);
+        assertNull(cache.get(1L));
+        TransactionSynchronizationManager.clearSynchronization(); // rolled back
+
+        assertNull(cache.get(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putAfterCommit(1L, 900, 1);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(900L, cache.get(1L));
+    }
+
+    @Test
+    void remoteInvalidationRejectsStaleReads() {
+        FakeChannel channel = new FakeChannel();
+        BalanceCache cache = cache(100, channel);
+
+        cache.put(1L, 100, 1);
+        channel.remoteChange(1L, 2);
+        assertNull(cache.get(1L));
+
+        cache.put(1L, 100, 1); // stale read that started before the remote write
+        assertNull(cache.get(1L));
+
+        cache.put(1L, 250, 2);
+        assertEquals(250L, cache.get(1L));
+
+        cache.putAfterCommit(1L, 300, 3);
+        assertEquals(List.of(3L), channel.published);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        BalanceCache cache = cache(16, null); // one entry per segment
+
+        cache.put(1L, 10, 1);
+        cache.put(17L, 20, 1); // same segment as 1
+        assertNull(cache.get(1L));
+        assertEquals(20L, cache.get(17L));
+        assertEquals(1, cache.evictionCount());
+        assertTrue(cache.size() <= 16);
+    }
+
+    @Test
+    void withoutInvalidationChannelTheCacheIsOffUnlessSingleInstance() {
+        BalanceCache cache = new BalanceCache(100, false, new StaticListableBeanFactory().getBeanProvider(BalanceInvalidationChannel.class));
+
+        cache.put(1L, 500, 1);
+        cache.putAfterCommit(2L, 700, 1);
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(0, cache.size());
+    }
+
+    // Without a channel the cache is built as a single instance, so it is on
+    private static BalanceCache cache(int maxSize, BalanceInvalidationChannel channel) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (channel != null) {
+            beans.addBean("channel", channel);
+        }
+        return new BalanceCache(maxSize, channel == null, beans.getBeanProvider(BalanceInvalidationChannel.class));
+    }
+
+    private static class FakeChannel implements BalanceInvalidationChannel {
+
+        private final List<Long> published = new ArrayList<>();
+        private ObjLongConsumer<Long> listener;
+
+        @Override
+        public void publish(long accountId, long version) {
+            published.add(version);
+        }
+
+        @Override
+        public void subscribe(ObjLongConsumer<Long> listener) {
+            this.listener = listener;
+        }
+
+        void remoteChange(long accountId, long version) {
+            listener.accept(accountId, version);
+        }
+    }
+}
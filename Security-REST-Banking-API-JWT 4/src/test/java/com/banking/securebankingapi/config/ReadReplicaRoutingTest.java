@@ -0,0 +1,191 @@
+package com.banking.securebankingapi.config;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.cache.BalanceCache;
+import com.banking.securebankingapi.dto.TransactionView;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.security.AuthenticatedUser;
+import com.banking.securebankingapi.service.AccountService;
+import com.banking.securebankingapi.service.AccountSummaryService;
+import com.banking.securebankingapi.service.TransactionHistoryService;
+import com.banking.securebankingapi.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two embedded databases stand in for a primary and its replica. The replica gets a copy of the
+ * primary plus one row the primary does not have, which shows where each read was served.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:rr_primary;" + ReadReplicaRoutingTest.H2_OPTIONS,
+                "banking.datasource.replica-urls=jdbc:h2:mem:rr_replica;IFEXISTS=TRUE;" + ReadReplicaRoutingTest.H2_OPTIONS,
+                "banking.datasource.replica-health-interval-ms=3600000",
+                "banking.datasource.read-your-writes-ms=1500",
+                "spring.datasource.hikari.connection-timeout=1000"
+        })
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String H2_OPTIONS = "DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:rr_replica;" + H2_OPTIONS;
+    private static final long REPLICA_ONLY_ID = 90_000_000L;
+
+    @Autowired
+    private ReadReplicaConfig readReplicaConfig;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private AccountSummaryService accountSummaryService;
+
+    private User user;
+    private Long accountId;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        // Must exist before the replica pool (IFEXISTS=TRUE) first connects
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            connection.createStatement().execute("select 1");
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        user = new User();
+        user.setUsername("replica-" + System.nanoTime());
+        user.setPassword("secret");
+        user = userService.register(user);
+        accountId = accountRepository.findIdByUsername(user.getUsername()).orElseThrow();
+
+        replicate();
+        readReplicaConfig.checkReplicas();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyWorkIsServedByTheReplica() throws SQLException {
+        assertTrue(historyIds().contains(REPLICA_ONLY_ID));
+
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            replica.createStatement().executeUpdate("update account set balance = 777 where id = " + accountId);
+        }
+        assertEquals(777, accountService.getBalance(accountId));
+        assertNull(balanceCache.get(accountId)); // Replica reads never fill the cache
+    }
+
+    @Test
+    void ownWritesAreReadFromThePrimaryForAWhile() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(user.getId(), accountId, user.getUsername()), null, List.of()));
+        accountService.deposit(accountId, 500);
+
+        List<Long> ids = historyIds();
+        assertEquals(1, ids.size());
+        assertFalse(ids.contains(REPLICA_ONLY_ID));
+
+        Thread.sleep(2_000);
+        assertTrue(historyIds().contains(REPLICA_ONLY_ID));
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToThePrimary() throws Exception {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            replica.createStatement().execute("shutdown");
+        }
+        Thread.sleep(600); // Past the pool's validation bypass window for recently used connections
+
+        assertFalse(historyIds().contains(REPLICA_ONLY_ID));
+        assertFalse(readReplicaConfig.getRoutingDataSource().getReplicas().get(0).isHealthy());
+
+        // Back after the next health check
+        replicate();
+        readReplicaConfig.checkReplicas();
+        assertTrue(readReplicaConfig.getRoutingDataSource().getReplicas().get(0).isHealthy());
+        assertTrue(historyIds().contains(REPLICA_ONLY_ID));
+    }
+
+    @Test
+    void summaryAggregationReadsItsWatermarkFromThePrimary() throws SQLException {
+        LocalDateTime watermark = LocalDate.now().minusDays(3).atStartOfDay();
+        try (Connection primary = DriverManager.getConnection("jdbc:h2:mem:rr_primary;" + H2_OPTIONS, "sa", "")) {
+            primary.createStatement().executeUpdate("delete from aggregation_checkpoint");
+            primary.createStatement().executeUpdate("insert into aggregation_checkpoint (name, watermark, version)"
+                    + " values ('account-summary', timestamp '" + Timestamp.valueOf(watermark) + "', 0)");
+        }
+        replicate();
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            replica.createStatement().executeUpdate("update aggregation_checkpoint set watermark = dateadd(day, -1, watermark)");
+        }
+
+        assertEquals(1, accountSummaryService.catchUpTo(watermark.plusHours(1)));
+        assertEquals(watermark.plusHours(1), accountSummaryService.getWatermark().orElseThrow());
+    }
+
+    private List<Long> historyIds() {
+        return transactionHistoryService.getHistory(accountId, null, 10).items().stream()
+                .map(TransactionView::id)
+                .toList();
+    }
+
+    // Copy the primary into the replica, then add a row only the replica has
+    private void replicate() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection("jdbc:h2:mem:rr_primary;" + H2_OPTIONS, "sa", "");
+             ResultSet rs = primary.createStatement().executeQuery("script")) {
+            while (rs.next()) {
+                script.add(rs.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("drop all objects");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+            statement.executeUpdate("insert into transaction (id, type, amount, timestamp, from_account_id, to_account_id)"
+                    + " values (" + REPLICA_ONLY_ID + ", 'DEPOSIT', 1, current_timestamp, " + accountId + ", null)");
+        }
+    }
+}
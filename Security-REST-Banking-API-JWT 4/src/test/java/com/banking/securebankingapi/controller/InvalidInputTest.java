@@ -0,0 +1,95 @@
+package com.banking.securebankingapi.controller;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Requests the services reject as invalid input are answered with 400 and the reason, not 500.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class InvalidInputTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "invalid-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        userService.register(user);
+        HttpResponse<String> login = post("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"secret\"}", null);
+        assertEquals(200, login.statusCode());
+        token = login.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+    }
+
+    @Test
+    void statementWithUnknownFormatOrReversedRange() throws Exception {
+        assertBadRequest(get("/api/account/statement?format=xml"), "format must be csv or ndjson");
+        assertBadRequest(get("/api/account/statement?from=2024-02-01&to=2024-01-01"), "'from' must not be after 'to'");
+    }
+
+    @Test
+    void summaryWithUnknownPeriodOrTooLongRange() throws Exception {
+        assertBadRequest(get("/api/account/summary?period=week"), "Period must be 'day' or 'month'");
+        assertBadRequest(get("/api/account/summary?from=2020-01-01&to=2024-01-01"), "Summary range is limited to 366 days");
+    }
+
+    @Test
+    void scheduledTransferWithUnknownFrequency() throws Exception {
+        assertBadRequest(post("/api/account/scheduled-transfers",
+                        "{\"toUsername\":\"nobody\",\"amount\":1.00,\"frequency\":\"hourly\"}", token),
+                "frequency must be DAILY, WEEKLY or MONTHLY");
+    }
+
+    @Test
+    void withdrawalBeyondTheBalance() throws Exception {
+        assertBadRequest(post("/api/account/withdraw", "{\"amount\":1.00}", token), "Insufficient balance");
+        assertBadRequest(post("/api/account/withdraw", "{\"amount\":-1.00}", token), "Withdraw amount must be positive");
+    }
+
+    private static void assertBadRequest(HttpResponse<String> response, String reason) {
+        assertEquals(400, response.statusCode(), response.body());
+        assertTrue(response.body().contains(reason), response.body());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json, String bearer) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
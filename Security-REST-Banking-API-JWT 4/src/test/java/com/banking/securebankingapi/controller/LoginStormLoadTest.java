@@ -0,0 +1,142 @@
+package com.banking.securebankingapi.controller;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load test: a login storm must not starve account endpoints of request threads.
+ * Tomcat runs with only 8 threads here; with bcrypt on request threads the storm would hold all of them.
+ * The hashing pool has one thread, which keeps a core busy for the whole storm, so the test needs a
+ * second core to serve the account endpoints from.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=8",
+                "banking.password-hashing.threads=1",
+                "banking.password-hashing.queue-capacity=8"
+        })
+@ActiveProfiles("test")
+class LoginStormLoadTest {
+
+    private static final int STORM_CLIENTS = 32;
+    private static final int SAMPLES = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void balanceLatencyHoldsSteadyDuringLoginStorm() throws Exception {
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "needs a core besides the hashing thread");
+        String username = "storm-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        userService.register(user);
+
+        HttpResponse<String> login = send(loginRequest(username));
+        assertEquals(200, login.statusCode());
+        String token = login.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+
+        balanceP99(token); // Warm up: JIT, caches and connections, so the baseline is the steady state
+        long baselineP99 = balanceP99(token);
+
+        AtomicBoolean storming = new AtomicBoolean(true);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger busy = new AtomicInteger();
+        ExecutorService storm = Executors.newFixedThreadPool(STORM_CLIENTS);
+        for (int i = 0; i < STORM_CLIENTS; i++) {
+            storm.execute(() -> {
+                while (storming.get()) {
+                    try {
+                        HttpResponse<String> response = send(loginRequest(username));
+                        if (response.statusCode() == 200) {
+                            ok.incrementAndGet();
+                        } else if (response.statusCode() == 503) {
+                            // Back off as told, like a well-behaved client
+                            busy.incrementAndGet();
+                            Thread.sleep(1_000L * Long.parseLong(response.headers().firstValue("Retry-After").orElse("1")));
+                        }
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        Thread.sleep(1_000); // let the hashing pool saturate
+        long stormP99 = balanceP99(token);
+        storming.set(false);
+        storm.shutdown();
+        assertTrue(storm.awaitTermination(30, TimeUnit.SECONDS));
+
+        System.out.printf("balance p99: %d ms idle, %d ms during login storm (%d logins ok, %d rejected with 503)%n",
+                baselineP99, stormP99, ok.get(), busy.get());
+
+        assertTrue(ok.get() > 0, "no login succeeded during the storm");
+        // Steady: at most double the idle p99, plus a few ms for timer granularity on fast machines
+        assertTrue(stormP99 <= 2 * baselineP99 + 5,
+                "balance p99 degraded from " + baselineP99 + " ms to " + stormP99 + " ms");
+    }
+
+    private long balanceP99(String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/account/balance"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        long[] millis = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(request);
+            millis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertEquals(200, response.statusCode());
+        }
+        Arrays.sort(millis);
+        return millis[(int) Math.ceil(SAMPLES * 0.99) - 1];
+    }
+
+    private HttpRequest loginRequest(String username) {
+        return HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"secret\"}"))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
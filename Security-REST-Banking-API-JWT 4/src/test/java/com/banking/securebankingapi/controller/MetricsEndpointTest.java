@@ -0,0 +1,85 @@
+package com.banking.securebankingapi.controller;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Prometheus scrape endpoint is served without authentication on the management port
+ * and carries endpoint latency histograms plus the banking timers and counters.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private UserService userService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void prometheusEndpointExposesBankingMetrics() throws Exception {
+        String username = "metrics-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        userService.register(user);
+
+        HttpResponse<String> login = send(post(port, "/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"secret\"}", null));
+        assertEquals(200, login.statusCode());
+        String token = login.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+        send(post(port, "/api/account/transfer", "{\"toUsername\":\"nobody\",\"amount\":1}", token));
+        send(post(port, "/api/account/withdraw", "{\"amount\":1}", token));
+
+        HttpResponse<String> scrape = send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).GET().build());
+        assertEquals(200, scrape.statusCode());
+        String body = scrape.body();
+        assertTrue(body.contains("http_server_requests_seconds_bucket"), "no endpoint histogram");
+        assertTrue(body.contains("uri=\"/api/account/transfer\""), "no per-endpoint series");
+        assertTrue(body.contains("banking_jwt_verification_seconds_count{result=\"valid\""), "no JWT timer");
+        assertTrue(body.contains("banking_password_hashing_seconds_count{operation=\"matches\""), "no bcrypt timer");
+        assertTrue(body.matches("(?s).*banking_account_rejections_total\\{reason=\"recipient_not_found\",?} 1\\.0.*"));
+        assertTrue(body.matches("(?s).*banking_account_rejections_total\\{reason=\"insufficient_balance\",?} 1\\.0.*"));
+        assertTrue(body.contains("spring_data_repository_invocations_seconds"), "no repository timings");
+        assertTrue(body.contains("hikaricp_connections_acquire_seconds"), "no pool wait timer");
+    }
+
+    private HttpRequest post(int port, String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,97 @@
+package com.banking.securebankingapi.controller;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Refresh tokens rotate on every use, and replaying a used one ends the whole login.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RefreshTokenTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        username = "refresh-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        userService.register(user);
+    }
+
+    @Test
+    void refreshRotatesAndDetectsReuse() throws Exception {
+        HttpResponse<String> login = send("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"secret\"}", null);
+        assertEquals(200, login.statusCode());
+        String first = field(login.body(), "refreshToken");
+
+        HttpResponse<String> refreshed = refresh(first);
+        assertEquals(200, refreshed.statusCode());
+        String second = field(refreshed.body(), "refreshToken");
+        assertNotEquals(first, second);
+        assertEquals(200, send("/api/account/balance", null, field(refreshed.body(), "token")).statusCode());
+
+        // Replaying the used token revokes its successor as well
+        assertEquals(401, refresh(first).statusCode());
+        assertEquals(401, refresh(second).statusCode());
+    }
+
+    @Test
+    void logoutRevokesTheRefreshToken() throws Exception {
+        HttpResponse<String> login = send("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"secret\"}", null);
+        String refreshToken = field(login.body(), "refreshToken");
+
+        assertEquals(200, send("/api/auth/logout", "{\"refreshToken\":\"" + refreshToken + "\"}",
+                field(login.body(), "token")).statusCode());
+        assertEquals(401, refresh(refreshToken).statusCode());
+        assertEquals(401, refresh("unknown").statusCode());
+    }
+
+    private HttpResponse<String> refresh(String refreshToken) throws Exception {
+        return send("/api/auth/refresh", "{\"refreshToken\":\"" + refreshToken + "\"}", null);
+    }
+
+    private static String field(String json, String name) {
+        return json.replaceAll(".*\"" + name + "\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+    }
+
+    private HttpResponse<String> send(String path, String json, String token) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (json == null) {
+            builder.GET();
+        } else {
+            builder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json));
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,116 @@
+package com.banking.securebankingapi.controller;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.security.JwtUtil;
+import com.banking.securebankingapi.security.TokenDenylist;
+import com.banking.securebankingapi.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Logged out and revoked tokens are rejected right away, including tokens JwtFilter has already cached.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class TokenRevocationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        username = "revoke-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        userService.register(user);
+    }
+
+    @Test
+    void logoutRejectsTheCachedToken() throws Exception {
+        String token = login();
+        assertEquals(200, balance(token)); // Now cached by JwtFilter
+
+        assertEquals(200, send("/api/auth/logout", "", token).statusCode());
+        assertNotEquals(200, balance(token));
+        assertNotEquals(200, send("/api/auth/logout", "", token).statusCode());
+
+        // Survives a reload of the filter from the table
+        tokenDenylist.rebuild();
+        assertTrue(tokenDenylist.isRevoked(jwtUtil.getClaims(token).getId()));
+        assertNotEquals(200, balance(token));
+    }
+
+    @Test
+    void revokeOnlyAffectsTheGivenToken() throws Exception {
+        String phone = login();
+        String laptop = login();
+        assertEquals(200, balance(phone));
+
+        HttpResponse<String> revoked = send("/api/auth/revoke", "{\"token\":\"" + phone + "\"}", laptop);
+        assertEquals(200, revoked.statusCode());
+        assertNotEquals(200, balance(phone));
+        assertEquals(200, balance(laptop));
+        assertFalse(tokenDenylist.isRevoked(jwtUtil.getClaims(laptop).getId()));
+    }
+
+    @Test
+    void cannotRevokeAnotherUsersToken() throws Exception {
+        String mine = login();
+        String other = jwtUtil.generateToken("someone-else", java.util.List.of("ROLE_USER"), -1L, -1L);
+
+        assertEquals(403, send("/api/auth/revoke", "{\"token\":\"" + other + "\"}", mine).statusCode());
+        assertEquals(400, send("/api/auth/revoke", "{\"token\":\"garbage\"}", mine).statusCode());
+        assertNotEquals(200, send("/api/auth/revoke", "{\"token\":\"" + other + "\"}", null).statusCode());
+    }
+
+    private String login() throws Exception {
+        HttpResponse<String> login = send("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"secret\"}", null);
+        assertEquals(200, login.statusCode());
+        return login.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+    }
+
+    private int balance(String token) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/account/balance"))
+                .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofString()).statusCode();
+    }
+
+    private HttpResponse<String> send(String path, String json, String token) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
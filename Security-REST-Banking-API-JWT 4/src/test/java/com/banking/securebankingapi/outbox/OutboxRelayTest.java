@@ -0,0 +1,169 @@
+package com.banking.securebankingapi.outbox;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.TransferRequest;
+import com.banking.securebankingapi.entity.OutboxEvent;
+import com.banking.securebankingapi.repository.OutboxEventRepository;
+import com.banking.securebankingapi.repository.TransactionRepository;
+import com.banking.securebankingapi.service.AccountService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Own database; the relay thread is off (test profile) so each test drains explicitly
+@SpringBootTest(classes = SecureBankingApiApplication.class, properties = {
+        "banking.outbox.relay.batch-size=3",
+        "spring.datasource.url=jdbc:h2:mem:outbox_db;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+@Import(OutboxRelayTest.Sink.class)
+class OutboxRelayTest {
+
+    @TestConfiguration
+    static class Sink {
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+        final List<OutboxEvent> delivered = new ArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public synchronized void publish(List<OutboxEvent> events) throws Exception {
+            if (failing) {
+                throw new IOException("broker unavailable");
+            }
+            delivered.addAll(events);
+        }
+    }
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long alice;
+    private Long bob;
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        sink.failing = false;
+        sink.delivered.clear();
+        alice = testData.createAccount("alice");
+        bob = testData.createAccount("bob");
+    }
+
+    @Test
+    void everyCommittedMovementIsPublishedInOrder() {
+        accountService.deposit(alice, 10_000);
+        accountService.withdraw(alice, 1_000);
+        accountService.transfer(alice, "bob", 2_500);
+        accountService.transferBatch(alice, List.of(
+                new TransferRequest("bob", new BigDecimal("1.00")),
+                new TransferRequest("nobody", new BigDecimal("1.00")),
+                new TransferRequest("bob", new BigDecimal("2.00"))));
+        // Rolled back together with its outbox row
+        assertThrows(IllegalArgumentException.class, () -> accountService.withdraw(alice, 1_000_000));
+        assertEquals(5, outboxEventRepository.count());
+
+        // Batches of 3: a full one, then a short one ends the drain
+        assertEquals(5, outboxRelay.drain());
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(List.of("DEPOSIT", "WITHDRAW", "TRANSFER", "TRANSFER", "TRANSFER"),
+                sink.delivered.stream().map(OutboxEvent::getType).toList());
+        assertEquals(List.of(10_000L, 1_000L, 2_500L, 100L, 200L),
+                sink.delivered.stream().map(OutboxEvent::getAmount).toList());
+
+        OutboxEvent deposit = sink.delivered.get(0);
+        assertEquals(alice, deposit.getFromAccountId());
+        assertNull(deposit.getToAccountId());
+        OutboxEvent transfer = sink.delivered.get(2);
+        assertEquals(bob, transfer.getToAccountId());
+        assertEquals(2_500, transactionRepository.findById(transfer.getTransactionId()).orElseThrow().getAmount());
+        assertEquals(0, outboxRelay.drain());
+    }
+
+    @Test
+    void failedBatchesStayQueuedUntilTheSinkAcceptsThem() {
+        double failuresBefore = meterRegistry.get("banking.outbox.publish.failures").counter().count();
+        accountService.deposit(alice, 500);
+        accountService.deposit(bob, 700);
+
+        sink.failing = true;
+        assertThrows(IllegalStateException.class, () -> outboxRelay.drain());
+        assertEquals(2, outboxEventRepository.count());
+        assertEquals(failuresBefore + 1, meterRegistry.get("banking.outbox.publish.failures").counter().count());
+
+        sink.failing = false;
+        assertEquals(2, outboxRelay.drain());
+        assertEquals(List.of(500L, 700L), sink.delivered.stream().map(OutboxEvent::getAmount).toList());
+        assertEquals(0.0, meterRegistry.get("banking.outbox.lag").timeGauge().value());
+    }
+
+    @Test
+    void fileSinkAppendsOneJsonLinePerEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("events/outbox.ndjson");
+        OutboxEvent event = new OutboxEvent();
+        event.setId(1L);
+        event.setTransactionId(42L);
+        event.setType("DEPOSIT");
+        event.setAmount(1_234);
+        event.setFromAccountId(alice);
+        event.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+        try (FileOutboxSink fileSink = new FileOutboxSink(file, objectMapper)) {
+            fileSink.publish(List.of(event));
+            fileSink.publish(List.of(event));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode json = objectMapper.readTree(lines.get(0));
+        assertEquals(42, json.get("transactionId").asLong());
+        assertEquals("2024-05-01T12:00:00", json.get("createdAt").asText());
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.securebankingapi.repository;
+
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * MySQL dialect for validating the MySQL schema on H2 in MySQL mode, which reads
+ * TINYTEXT/MEDIUMTEXT columns back as VARCHAR where MySQL reports a text type.
+ */
+public class H2MySqlDialect extends MySQLDialect {
+
+    @Override
+    public boolean equivalentTypes(int typeCode1, int typeCode2) {
+        return super.equivalentTypes(typeCode1, typeCode2)
+                || SqlTypes.isCharacterOrClobType(typeCode1) && SqlTypes.isCharacterOrClobType(typeCode2);
+    }
+}
@@ -0,0 +1,121 @@
+package com.banking.securebankingapi.repository;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.entity.Account;
+import com.banking.securebankingapi.entity.Transaction;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.service.AccountService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Flyway migrations, as production does, and lets Hibernate validate the entities
+ * against the result: the context only starts if every table, column and sequence table matches.
+ * H2 in MySQL mode with the MySQL dialect (see {@link H2MySqlDialect}) stands in for MySQL.
+ *
+ * The database starts out as the original application left it: the V1 tables holding dollars,
+ * without migration history, so it is adopted through baseline-on-migrate and V2 onward convert it.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class, properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=com.banking.securebankingapi.repository.H2MySqlDialect",
+        "spring.datasource.url=jdbc:h2:mem:migration_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+@Import(SchemaMigrationTest.LegacyDatabase.class)
+class SchemaMigrationTest {
+
+    private static final long LEGACY_TRANSACTION_ID = 1_000;
+
+    @TestConfiguration
+    static class LegacyDatabase {
+        @Bean
+        FlywayMigrationStrategy fromOriginalSchema(DataSource dataSource) {
+            return flyway -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline_schema.sql"));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.update("insert into user (id, username, password, role) values (1, 'legacy', 'x', 'ROLE_USER')");
+                jdbcTemplate.update("insert into account (id, balance, user_id) values (1, 12.34, 1)");
+                jdbcTemplate.update("insert into transaction (id, type, amount, to_account_id, timestamp)"
+                        + " values (?, 'DEPOSIT', 12.34, 1, current_timestamp)", LEGACY_TRANSACTION_ID);
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void migrationsProduceTheSchemaTheEntitiesExpect() {
+        MigrationVersion latest = Arrays.stream(flyway.info().all()).map(MigrationInfo::getVersion).max(Comparator.naturalOrder()).orElseThrow();
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(latest, flyway.info().current().getVersion());
+
+        // Pooled ids come from the emulated sequence tables, identity ids from auto_increment
+        User user = new User();
+        user.setUsername("migrated");
+        user.setPassword("x");
+        user.setRole("ROLE_USER");
+        long transactionsBefore = transactionRepository.count();
+        Account account = new Account();
+        account.setUser(userRepository.save(user));
+        Long accountId = accountRepository.save(account).getId();
+        accountService.deposit(accountId, 1_000);
+        accountService.withdraw(accountId, 400);
+
+        assertEquals(600, accountService.getBalance(accountId));
+        assertEquals(transactionsBefore + 2, transactionRepository.count());
+    }
+
+    @Test
+    void originalDataIsConvertedToCents() {
+        assertEquals("1", flyway.info().applied()[0].getVersion().getVersion(), "adopted at the baseline");
+        assertEquals(1_234, accountService.getBalance(1L));
+        assertEquals(1_234, transactionRepository.findById(LEGACY_TRANSACTION_ID).orElseThrow().getAmount());
+
+        accountService.withdraw(1L, 1_000);
+        Transaction withdrawal = transactionRepository.findAll(Sort.by(Sort.Direction.DESC, "id")).get(0);
+        assertTrue(withdrawal.getId() > LEGACY_TRANSACTION_ID, "transaction ids continue above the existing ones");
+        assertEquals(234, accountService.getBalance(1L));
+    }
+}
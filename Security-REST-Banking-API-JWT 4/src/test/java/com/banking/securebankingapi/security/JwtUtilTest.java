@@ -0,0 +1,95 @@
+package com.banking.securebankingapi.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "your_jwt_secret_key_here_change_me";
+    private static final String LONG_SECRET = SECRET.repeat(2);
+
+    @Test
+    void tokensOfRetiredKeysVerifyAfterRotation() {
+        JwtUtil before = jwtUtil("HS256", "2024-01", SECRET, "");
+        String oldToken = before.generateToken("alice", List.of("ROLE_USER"), 1L, 2L);
+
+        JwtUtil after = jwtUtil("HS512", "2024-02", LONG_SECRET, "2024-01=" + SECRET);
+        String newToken = after.generateToken("alice", List.of("ROLE_USER"), 1L, 2L);
+        assertEquals("alice", after.getClaims(oldToken).getSubject());
+        assertEquals("alice", after.getClaims(newToken).getSubject());
+        assertEquals("HS512", Jwts.parserBuilder().setSigningKey(LONG_SECRET.getBytes(StandardCharsets.UTF_8)).build()
+                .parseClaimsJws(newToken).getHeader().getAlgorithm());
+
+        // Once the old key is dropped from the configuration its tokens are rejected
+        JwtUtil later = jwtUtil("HS512", "2024-02", LONG_SECRET, "");
+        assertThrows(JwtException.class, () -> later.getClaims(oldToken));
+    }
+
+    @Test
+    void es256TokensVerifyWithThePublicKey() {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtUtil util = jwtUtil("ES256", "ec-1", SECRET, "");
+        ReflectionTestUtils.setField(util, "ecPrivateKey", Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()));
+        ReflectionTestUtils.setField(util, "ecPublicKey", Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+        util.init();
+
+        String token = util.generateToken("bob", List.of("ROLE_USER"), 3L, 4L);
+        assertEquals(4L, util.getClaims(token).get(JwtUtil.ACCOUNT_ID_CLAIM, Number.class).longValue());
+
+        // An HMAC token claiming the EC key id must not pass
+        String forged = Jwts.builder().setHeaderParam("kid", "ec-1").setSubject("bob")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).compact();
+        assertThrows(JwtException.class, () -> util.getClaims(forged));
+    }
+
+    @Test
+    void rejectsUnknownKeyIdsAndWeakSecrets() {
+        JwtUtil util = jwtUtil("HS256", "primary", SECRET, "");
+        String foreign = jwtUtil("HS256", "other", SECRET, "").generateToken("carol", List.of("ROLE_USER"), 5L, 6L);
+        assertThrows(JwtException.class, () -> util.getClaims(foreign));
+
+        assertThrows(RuntimeException.class, () -> jwtUtil("HS512", "primary", SECRET, ""));
+    }
+
+    @Test
+    void tokensWithoutKeyIdOnlyPassWhenLegacyTokensAreAccepted() {
+        String legacy = Jwts.builder().setSubject("dave")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).compact();
+        assertThrows(JwtException.class, () -> jwtUtil("HS256", "primary", SECRET, "").getClaims(legacy));
+
+        JwtUtil accepting = jwtUtil("HS256", "primary", SECRET, "");
+        ReflectionTestUtils.setField(accepting, "acceptLegacyTokens", true);
+        accepting.init();
+        assertEquals("dave", accepting.getClaims(legacy).getSubject());
+    }
+
+    private static JwtUtil jwtUtil(String algorithm, String keyId, String secret, String retiredKeys) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "expiration", 60_000L);
+        ReflectionTestUtils.setField(util, "algorithm", algorithm);
+        ReflectionTestUtils.setField(util, "keyId", keyId);
+        ReflectionTestUtils.setField(util, "ecPrivateKey", "");
+        ReflectionTestUtils.setField(util, "ecPublicKey", "");
+        ReflectionTestUtils.setField(util, "retiredKeys", retiredKeys);
+        if (!algorithm.startsWith("ES")) {
+            util.init();
+        }
+        return util;
+    }
+}
@@ -0,0 +1,84 @@
+package com.banking.securebankingapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+    // auth: burst 3, money: burst 2, account: burst 4; refill far too slow to matter during a test
+    private final RateLimitFilter filter = new RateLimitFilter(true, 1000,
+            0.001, 3, 0.001, 2, 0.001, 4, new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void loginIsLimitedPerClientAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, call("POST", "/api/auth/login", "10.0.0.1", null).getStatus());
+        }
+        MockHttpServletResponse rejected = call("POST", "/api/auth/login", "10.0.0.1", null);
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(3, passed.get()); // The controller was never reached
+
+        assertEquals(200, call("POST", "/api/auth/login", "10.0.0.2", null).getStatus());
+    }
+
+    @Test
+    void moneyEndpointsHaveTheirOwnBucketPerUser() throws Exception {
+        assertEquals(200, call("POST", "/api/account/transfer", "10.0.0.1", 1L).getStatus());
+        assertEquals(200, call("POST", "/api/account/deposit", "10.0.0.1", 1L).getStatus());
+        assertEquals(429, call("POST", "/api/account/transfers/batch", "10.0.0.1", 1L).getStatus());
+
+        // Reads draw from the other bucket, and another user on the same address is unaffected
+        assertEquals(200, call("GET", "/api/account/balance", "10.0.0.1", 1L).getStatus());
+        assertEquals(200, call("POST", "/api/account/transfer", "10.0.0.1", 2L).getStatus());
+    }
+
+    @Test
+    void idleBucketsAreEvicted() {
+        RateLimiter limiter = new RateLimiter(1_000_000, 1, 10);
+        assertEquals(0, limiter.tryAcquire("a"));
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire("key-" + i); // Never more than maxKeys tracked
+        }
+        assertTrue(limiter.size() <= 10);
+
+        RateLimiter slow = new RateLimiter(0.001, 1, 10);
+        assertEquals(0, slow.tryAcquire("a"));
+        slow.evictIdle();
+        assertEquals(1, slow.size()); // Still refilling, so its state matters
+    }
+
+    private MockHttpServletResponse call(String method, String path, String address, Long userId) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (userId != null) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    new AuthenticatedUser(userId, userId, "user" + userId), null, List.of()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.BatchTransferResult;
+import com.banking.securebankingapi.dto.TransferRequest;
+import com.banking.securebankingapi.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class AccountServiceBatchTransferTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Long payer;
+    private Long alice;
+    private Long bob;
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        payer = testData.createAccount("payer", 100_000);
+        alice = testData.createAccount("alice", 0);
+        bob = testData.createAccount("bob", 0);
+    }
+
+    @Test
+    void appliesValidTransfersAndReportsFailuresPerItem() {
+        List<TransferRequest> transfers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            transfers.add(new TransferRequest(i % 2 == 0 ? "alice" : "bob", new BigDecimal("2.50")));
+        }
+        transfers.add(new TransferRequest("nobody", BigDecimal.ONE));
+        transfers.add(new TransferRequest("alice", new BigDecimal("-1")));
+        transfers.add(new TransferRequest("bob", new BigDecimal("1.234")));
+        transfers.add(new TransferRequest("bob", new BigDecimal("999999")));
+
+        BatchTransferResult result = accountService.transferBatch(payer, transfers);
+
+        assertEquals(200, result.succeeded());
+        assertEquals(4, result.failed());
+        assertTrue(result.results().get(0).success());
+        assertEquals("Recipient not found", result.results().get(200).error());
+        assertEquals("Transfer amount must be positive", result.results().get(201).error());
+        assertFalse(result.results().get(202).success());
+        assertEquals("Insufficient balance", result.results().get(203).error());
+
+        assertEquals(50_000, accountService.getBalance(payer));
+        assertEquals(25_000, accountService.getBalance(alice));
+        assertEquals(25_000, accountService.getBalance(bob));
+        assertEquals(200, transactionRepository.count());
+    }
+}
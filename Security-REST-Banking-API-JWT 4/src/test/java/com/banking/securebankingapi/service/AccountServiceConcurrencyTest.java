@@ -0,0 +1,119 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test for concurrent transfers: many clients move money between a small set of
+ * accounts, then every balance must equal its initial value plus the transfers that succeeded.
+ */
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class AccountServiceConcurrencyTest {
+
+    private static final int ACCOUNTS = 16;
+    private static final long INITIAL_BALANCE = 100_000; // cents
+    private static final int TRANSFERS_PER_RUN = 2_000;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        accountIds.clear();
+        usernames.clear();
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(testData.createAccount("stress-" + i, INITIAL_BALANCE));
+            usernames.add("stress-" + i);
+        }
+    }
+
+    @ParameterizedTest(name = "{0} concurrent clients")
+    @ValueSource(ints = {8, 32, 128})
+    void concurrentTransfersLoseNoUpdates(int clients) throws Exception {
+        AtomicLongArray deltas = new AtomicLongArray(ACCOUNTS);
+        AtomicInteger remaining = new AtomicInteger(TRANSFERS_PER_RUN);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (remaining.getAndDecrement() > 0) {
+                        int from = random.nextInt(ACCOUNTS);
+                        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        long amount = 1 + random.nextInt(10_000);
+                        try {
+                            accountService.transfer(accountIds.get(from), usernames.get(to), amount);
+                            deltas.addAndGet(from, -amount);
+                            deltas.addAndGet(to, amount);
+                            succeeded.incrementAndGet();
+                        } catch (IllegalArgumentException insufficientBalance) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES), "transfers did not finish");
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        System.out.printf("%3d clients: %d transfers (%d rejected) in %.2fs = %.0f transfers/s%n",
+                clients, succeeded.get(), rejected.get(), seconds, (succeeded.get() + rejected.get()) / seconds);
+
+        assertTrue(failures.isEmpty(), () -> "unexpected failures: " + failures);
+        long total = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long balance = accountService.getBalance(accountIds.get(i));
+            assertEquals(INITIAL_BALANCE + deltas.get(i), balance, "lost update on account " + i);
+            assertTrue(balance >= 0, "negative balance on account " + i);
+            total += balance;
+        }
+        assertEquals(ACCOUNTS * INITIAL_BALANCE, total);
+        assertEquals(succeeded.get(), transactionRepository.count());
+    }
+}
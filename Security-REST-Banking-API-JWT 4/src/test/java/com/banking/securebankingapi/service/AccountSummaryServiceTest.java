@@ -0,0 +1,126 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.AccountSummary;
+import com.banking.securebankingapi.dto.SummaryBucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class AccountSummaryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 30, 0, 0);
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AccountSummaryService accountSummaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long alice;
+    private Long bob;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        alice = testData.createAccount("alice");
+        bob = testData.createAccount("bob");
+
+        // Jan 30: alice deposits 100.00 and sends 30.00 to bob
+        addRow("DEPOSIT", 10_000, START.plusHours(9), alice, null);
+        addRow("TRANSFER", 3_000, START.plusHours(10), alice, bob);
+        // Jan 31: alice withdraws 5.00, bob sends 1.50 back
+        addRow("WITHDRAW", 500, START.plusDays(1).plusHours(8), alice, null);
+        addRow("TRANSFER", 150, START.plusDays(1).plusHours(23), bob, alice);
+        // Feb 1: alice deposits 20.00 twice
+        addRow("DEPOSIT", 2_000, START.plusDays(2).plusHours(1), alice, null);
+        addRow("DEPOSIT", 2_000, START.plusDays(2).plusHours(2), alice, null);
+        jdbcTemplate.batchUpdate("insert into transaction (id, type, amount, timestamp, from_account_id, to_account_id)"
+                + " values (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void backfillBuildsDailyAndMonthlyRollups() {
+        accountSummaryService.catchUpTo(START.plusDays(5));
+
+        AccountSummary days = accountSummaryService.getSummary(alice, "day", START.toLocalDate(), START.toLocalDate().plusDays(4));
+        assertEquals(3, days.buckets().size());
+        assertBucket(days.buckets().get(0), "100.00", "0.00", "30.00", "0.00", 2);
+        assertBucket(days.buckets().get(1), "0.00", "5.00", "0.00", "1.50", 2);
+        assertBucket(days.buckets().get(2), "40.00", "0.00", "0.00", "0.00", 2);
+        assertEquals(START.plusDays(5), days.asOf());
+
+        AccountSummary months = accountSummaryService.getSummary(alice, "month", LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 15));
+        assertEquals(2, months.buckets().size());
+        assertEquals(LocalDate.of(2024, 1, 1), months.buckets().get(0).periodStart());
+        assertBucket(months.buckets().get(0), "100.00", "5.00", "30.00", "1.50", 4);
+        assertBucket(months.buckets().get(1), "40.00", "0.00", "0.00", "0.00", 2);
+
+        AccountSummary bobMonths = accountSummaryService.getSummary(bob, "month", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1));
+        assertBucket(bobMonths.buckets().get(0), "0.00", "0.00", "1.50", "30.00", 2);
+    }
+
+    @Test
+    void incrementalRunsOnlyAddNewTransactions() {
+        // Stop in the middle of Jan 31, then carry on; nothing may be counted twice
+        accountSummaryService.catchUpTo(START.plusDays(1).plusHours(12));
+        AccountSummary partial = accountSummaryService.getSummary(alice, "month", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        assertBucket(partial.buckets().get(0), "100.00", "5.00", "30.00", "0.00", 3);
+
+        accountSummaryService.catchUpTo(START.plusDays(5));
+        accountSummaryService.catchUpTo(START.plusDays(5));
+        AccountSummary full = accountSummaryService.getSummary(alice, "month", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        assertBucket(full.buckets().get(0), "100.00", "5.00", "30.00", "1.50", 4);
+    }
+
+    @Test
+    void backfillIsSpreadOverRuns() {
+        assertEquals(2, accountSummaryService.catchUpTo(START.plusDays(5), 2));
+        assertEquals(START.plusDays(2), accountSummaryService.getWatermark().orElseThrow());
+
+        assertEquals(3, accountSummaryService.catchUpTo(START.plusDays(5), 10));
+        AccountSummary full = accountSummaryService.getSummary(alice, "month", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        assertBucket(full.buckets().get(0), "100.00", "5.00", "30.00", "1.50", 4);
+        assertEquals(0, accountSummaryService.catchUpTo(START.plusDays(5), 10));
+    }
+
+    @Test
+    void rejectsInvalidRanges() {
+        LocalDate day = START.toLocalDate();
+        assertThrows(IllegalArgumentException.class, () -> accountSummaryService.getSummary(alice, "week", day, day));
+        assertThrows(IllegalArgumentException.class, () -> accountSummaryService.getSummary(alice, "day", day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> accountSummaryService.getSummary(alice, "day", day, day.plusYears(2)));
+    }
+
+    private void assertBucket(SummaryBucket bucket, String deposited, String withdrawn, String sent, String received, long count) {
+        assertEquals(new BigDecimal(deposited), bucket.deposited());
+        assertEquals(new BigDecimal(withdrawn), bucket.withdrawn());
+        assertEquals(new BigDecimal(sent), bucket.sent());
+        assertEquals(new BigDecimal(received), bucket.received());
+        assertEquals(count, bucket.transactionCount());
+    }
+
+    private void addRow(String type, long amount, LocalDateTime timestamp, Long from, Long to) {
+        rows.add(new Object[]{20_000_000L + rows.size(), type, amount, Timestamp.valueOf(timestamp), from, to});
+    }
+}
@@ -0,0 +1,182 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.BatchTransferResult;
+import com.banking.securebankingapi.dto.TransferRequest;
+import com.banking.securebankingapi.entity.AccountStripe;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.AccountStripeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class HotAccountServiceTest {
+
+    private static final int PAYERS = 8;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountStripeRepository accountStripeRepository;
+
+    private Long merchant;
+    private final List<Long> payers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        payers.clear();
+        merchant = testData.createAccount("merchant", 1_000);
+        for (int i = 0; i < PAYERS; i++) {
+            payers.add(testData.createAccount("payer-" + i, 10_000));
+        }
+        hotAccountService.designate(merchant, 4);
+    }
+
+    @Test
+    void creditsAreSpreadOverStripesAndSummedOnRead() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PAYERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long payer : payers) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        accountService.transfer(payer, "merchant", 100);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(1_000 + PAYERS * 2_500, accountService.getBalance(merchant));
+        assertEquals(1_000, accountRepository.findById(merchant).orElseThrow().getBalance());
+        for (AccountStripe stripe : accountStripeRepository.findAll()) {
+            assertTrue(stripe.getBalance() > 0, "stripe " + stripe.getStripe() + " never credited");
+        }
+    }
+
+    @Test
+    void debitsBorrowFromStripes() {
+        accountService.transfer(payers.get(0), "merchant", 3_000);
+        accountService.deposit(merchant, 500);
+
+        accountService.withdraw(merchant, 4_000);
+
+        assertEquals(500, accountService.getBalance(merchant));
+        assertEquals(500, accountRepository.findById(merchant).orElseThrow().getBalance());
+        assertThrows(IllegalArgumentException.class, () -> accountService.withdraw(merchant, 501));
+    }
+
+    @Test
+    void creditsAndBorrowingDebitsRunTogether() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PAYERS + 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long payer : payers) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        accountService.transfer(payer, "merchant", 100);
+                        accountService.deposit(merchant, 10);
+                    }
+                }));
+            }
+            // The account row holds only 1,000: every debit beyond that sweeps the stripes
+            for (int w = 0; w < 2; w++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        try {
+                            accountService.withdraw(merchant, 300);
+                        } catch (IllegalArgumentException insufficient) {
+                            // The credits have not caught up yet
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        long withdrawn = 1_000 + PAYERS * 25 * 110 - accountService.getBalance(merchant);
+        assertEquals(0, withdrawn % 300);
+        assertTrue(withdrawn > 1_000, "debits borrowed from the stripes");
+        assertEquals(PAYERS * 10_000 - PAYERS * 2_500, payers.stream().mapToLong(accountService::getBalance).sum());
+    }
+
+    @Test
+    void batchTransfersUseStripesOnBothSides() {
+        BatchTransferResult in = accountService.transferBatch(payers.get(0), List.of(
+                new TransferRequest("merchant", new BigDecimal("10.00")),
+                new TransferRequest("merchant", new BigDecimal("5.00"))));
+        assertEquals(2, in.succeeded());
+        assertEquals(2_500, accountService.getBalance(merchant));
+
+        BatchTransferResult out = accountService.transferBatch(merchant, List.of(
+                new TransferRequest("payer-1", new BigDecimal("20.00")),
+                new TransferRequest("payer-2", new BigDecimal("10.00"))));
+        assertEquals(1, out.succeeded());
+        assertEquals("Insufficient balance", out.results().get(1).error());
+        assertEquals(500, accountService.getBalance(merchant));
+        assertEquals(12_000, accountService.getBalance(payers.get(1)));
+    }
+
+    @Test
+    void stripesCreatedByAnotherInstanceAreCounted() {
+        Long cached = payers.get(0);
+        Long uncached = payers.get(1);
+        assertEquals(10_000, accountService.getBalance(cached));
+        // Another instance designates both accounts and takes credits on their stripes
+        addStripe(cached, 300);
+        addStripe(uncached, 200);
+
+        assertEquals(10_200, accountService.getBalance(uncached), "stripes are checked on a cache miss");
+        hotAccountService.refresh();
+        assertTrue(hotAccountService.isHot(cached));
+        assertEquals(10_300, accountService.getBalance(cached));
+
+        accountStripeRepository.deleteAllInBatch();
+        hotAccountService.refresh();
+        assertFalse(hotAccountService.isHot(merchant));
+    }
+
+    private void addStripe(Long accountId, long balance) {
+        AccountStripe stripe = new AccountStripe();
+        stripe.setAccountId(accountId);
+        stripe.setStripe(0);
+        stripe.setBalance(balance);
+        accountStripeRepository.save(stripe);
+    }
+}
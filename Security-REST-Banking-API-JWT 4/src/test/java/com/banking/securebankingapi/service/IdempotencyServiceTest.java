@@ -0,0 +1,152 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.AmountRequest;
+import com.banking.securebankingapi.entity.IdempotencyRecord;
+import com.banking.securebankingapi.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        accountId = testData.createAccount("idem", 10_000);
+    }
+
+    @Test
+    void concurrentDuplicatesRunTheOperationOnce() throws Exception {
+        String key = "key-" + System.nanoTime();
+        AmountRequest request = new AmountRequest(new BigDecimal("10.00"));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return withdraw(key, request, executions);
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertEquals("Withdraw successful", result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals("Withdraw successful", withdraw(key, request, executions));
+        assertEquals(1, executions.get());
+        assertEquals(9_000, accountService.getBalance(accountId));
+        assertEquals(1, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        String key = "key-" + System.nanoTime();
+        AtomicInteger executions = new AtomicInteger();
+        withdraw(key, new AmountRequest(BigDecimal.ONE), executions);
+
+        IdempotencyException e = assertThrows(IdempotencyException.class,
+                () -> withdraw(key, new AmountRequest(BigDecimal.TEN), executions));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedOperationsAreNotRemembered() {
+        String key = "key-" + System.nanoTime();
+        AtomicInteger executions = new AtomicInteger();
+        AmountRequest tooMuch = new AmountRequest(new BigDecimal("1000.00"));
+        assertThrows(IllegalArgumentException.class, () -> withdraw(key, tooMuch, executions));
+        assertEquals(0, idempotencyRecordRepository.count());
+
+        accountService.deposit(accountId, 100_000);
+        assertEquals("Withdraw successful", withdraw(key, tooMuch, executions));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void storedResultsAreServedAfterMemoryIsLost() {
+        // As if another instance (or this one before a restart) had completed the request
+        String key = "key-" + System.nanoTime();
+        AtomicInteger executions = new AtomicInteger();
+        AmountRequest request = new AmountRequest(BigDecimal.ONE);
+        withdraw(key, request, executions);
+        IdempotencyRecord record = idempotencyRecordRepository.findByAccountIdAndIdempotencyKey(accountId, key).orElseThrow();
+        idempotencyRecordRepository.delete(record);
+        record.setId(null);
+        record.setIdempotencyKey(key + "-elsewhere");
+        idempotencyRecordRepository.save(record);
+
+        assertEquals("Withdraw successful", withdraw(key + "-elsewhere", request, executions));
+        assertEquals(1, executions.get());
+        assertEquals(9_900, accountService.getBalance(accountId));
+    }
+
+    @Test
+    void expiredKeysRunAgain() {
+        String key = "key-" + System.nanoTime();
+        AtomicInteger executions = new AtomicInteger();
+        AmountRequest request = new AmountRequest(BigDecimal.ONE);
+        withdraw(key, request, executions);
+        // The same request under another key, stored long ago and expired since
+        IdempotencyRecord expired = idempotencyRecordRepository.findByAccountIdAndIdempotencyKey(accountId, key).orElseThrow();
+        expired.setId(null);
+        expired.setIdempotencyKey(key + "-expired");
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        idempotencyRecordRepository.save(expired);
+
+        assertEquals("Withdraw successful", withdraw(key + "-expired", request, executions));
+        assertEquals(2, executions.get());
+        assertEquals(9_800, accountService.getBalance(accountId));
+        assertTrue(idempotencyRecordRepository.findByAccountIdAndIdempotencyKey(accountId, key + "-expired")
+                .orElseThrow().getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    private String withdraw(String key, AmountRequest request, AtomicInteger executions) {
+        return idempotencyService.execute(accountId, key, "withdraw", request, String.class, () -> {
+            executions.incrementAndGet();
+            accountService.withdraw(accountId, request.amount().movePointRight(2).longValueExact());
+            return "Withdraw successful";
+        });
+    }
+}
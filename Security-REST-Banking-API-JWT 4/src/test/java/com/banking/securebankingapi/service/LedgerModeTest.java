@@ -0,0 +1,190 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.BatchTransferResult;
+import com.banking.securebankingapi.dto.TransferRequest;
+import com.banking.securebankingapi.entity.AccountStripe;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.AccountStripeRepository;
+import com.banking.securebankingapi.repository.LedgerEntryRepository;
+import com.banking.securebankingapi.repository.LedgerSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Own database: a second context doing create-drop on the shared one would reset its sequences
+@SpringBootTest(classes = SecureBankingApiApplication.class, properties = {
+        "banking.ledger.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:ledger_db;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class LedgerModeTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerCompactor ledgerCompactor;
+
+    @Autowired
+    private AccountStripeRepository accountStripeRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    private Long alice;
+    private Long bob;
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        alice = testData.createAccount("alice");
+        bob = testData.createAccount("bob");
+    }
+
+    @Test
+    void balancesComeFromEntriesAndSnapshots() {
+        accountService.deposit(alice, 10_000);
+        accountService.withdraw(alice, 1_000);
+        accountService.transfer(alice, "bob", 2_500);
+        assertThrows(IllegalArgumentException.class, () -> accountService.transfer(alice, "bob", 1_000_000));
+
+        assertEquals(6_500, accountService.getBalance(alice));
+        assertEquals(2_500, accountService.getBalance(bob));
+        assertEquals(0, ledgerEntryRepository.sumAll());
+        // Account rows are not touched in ledger mode
+        assertEquals(0, accountRepository.findById(alice).orElseThrow().getBalance());
+
+        ledgerCompactor.compactUpTo(LocalDateTime.now());
+        accountService.deposit(bob, 100);
+
+        assertEquals(6_500, ledgerSnapshotRepository.findById(alice).orElseThrow().getBalance());
+        assertEquals(6_500, accountService.getBalance(alice));
+        assertEquals(2_600, accountService.getBalance(bob));
+    }
+
+    @Test
+    void moneyHeldBeforeLedgerModeIsCarriedOver() {
+        // Balances written before the switch: the account row and a hot-account stripe
+        Long carol = testData.createAccount("carol", 10_000);
+        AccountStripe stripe = new AccountStripe();
+        stripe.setAccountId(carol);
+        stripe.setBalance(500);
+        accountStripeRepository.save(stripe);
+
+        assertEquals(1, ledgerService.openAccounts());
+        assertEquals(10_500, accountService.getBalance(carol));
+
+        accountService.withdraw(carol, 2_000);
+        accountService.transfer(carol, "bob", 500);
+        assertEquals(0, ledgerService.openAccounts(), "accounts already in the ledger are not opened again");
+        ledgerCompactor.compactUpTo(LocalDateTime.now());
+
+        assertEquals(8_000, accountService.getBalance(carol));
+        assertEquals(500, accountService.getBalance(bob));
+        assertThrows(IllegalArgumentException.class, () -> accountService.withdraw(carol, 8_001));
+        assertEquals(0, ledgerEntryRepository.sumAll());
+    }
+
+    @Test
+    void batchTransfersPostBalancedEntries() {
+        accountService.deposit(alice, 1_000);
+        BatchTransferResult result = accountService.transferBatch(alice, List.of(
+                new TransferRequest("bob", new BigDecimal("6.00")),
+                new TransferRequest("bob", new BigDecimal("6.00")),
+                new TransferRequest("nobody", BigDecimal.ONE)));
+
+        assertEquals(1, result.succeeded());
+        assertEquals("Insufficient balance", result.results().get(1).error());
+        assertEquals("Recipient not found", result.results().get(2).error());
+        assertEquals(400, accountService.getBalance(alice));
+        assertEquals(600, accountService.getBalance(bob));
+        assertEquals(0, ledgerEntryRepository.sumAll());
+    }
+
+    @Test
+    void concurrentDebitsNeverOverdraw() throws Exception {
+        accountService.deposit(alice, 5_000);
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        accountService.transfer(alice, "bob", 100);
+                        succeeded.incrementAndGet();
+                    } catch (IllegalArgumentException insufficient) {
+                        // expected once the balance runs out
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(50, succeeded.get());
+        assertEquals(0, accountService.getBalance(alice));
+        assertEquals(5_000, accountService.getBalance(bob));
+    }
+
+    @Test
+    void oppositeTransfersDoNotDeadlock() throws Exception {
+        accountService.deposit(alice, 10_000);
+        accountService.deposit(bob, 10_000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                boolean fromAlice = i % 2 == 0;
+                // Each transfer locks both rows; the recipient's must not be taken after the sender's
+                futures.add(pool.submit(() -> {
+                    if (fromAlice) {
+                        accountService.transfer(alice, "bob", 10);
+                    } else {
+                        accountService.transfer(bob, "alice", 10);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(10_000, accountService.getBalance(alice));
+        assertEquals(10_000, accountService.getBalance(bob));
+        assertEquals(0, ledgerEntryRepository.sumAll());
+    }
+}
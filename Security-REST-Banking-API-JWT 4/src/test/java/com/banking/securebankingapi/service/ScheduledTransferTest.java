@@ -0,0 +1,270 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.ScheduledTransferRequest;
+import com.banking.securebankingapi.dto.ScheduledTransferView;
+import com.banking.securebankingapi.entity.ScheduledTransfer;
+import com.banking.securebankingapi.repository.ScheduledTransferPartitionRepository;
+import com.banking.securebankingapi.repository.ScheduledTransferRepository;
+import com.banking.securebankingapi.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Own database; the worker threads are off (test profile) so each test drains explicitly
+@SpringBootTest(classes = SecureBankingApiApplication.class, properties = {
+        "banking.scheduled-transfers.batch-size=4",
+        "spring.datasource.url=jdbc:h2:mem:scheduled_db;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class ScheduledTransferTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+
+    @Autowired
+    private ScheduledTransferRunner scheduledTransferRunner;
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private ScheduledTransferPartitionRepository partitionRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        jdbcTemplate.update("update scheduled_transfer_partition set owner = null, lease_until = null");
+    }
+
+    @Test
+    void dueOccurrencesRunAndTheScheduleAdvances() {
+        Long payer = testData.createAccount("payer", 10_000);
+        Long bob = testData.createAccount("bob", 0);
+        LocalDateTime start = LocalDateTime.now().minusDays(2).minusMinutes(1).withNano(0);
+        Long open = schedule(payer, "bob", "1.00", "daily", start, null).id();
+        Long ending = schedule(payer, "bob", "0.50", "DAILY", start, start.plusDays(1)).id();
+        schedule(payer, "bob", "5.00", "WEEKLY", LocalDateTime.now().plusDays(1), null);
+
+        assertEquals(5, scheduledTransferRunner.drain());
+
+        ScheduledTransfer daily = scheduledTransferRepository.findById(open).orElseThrow();
+        assertEquals(3, daily.getRunCount());
+        assertEquals(start.plusDays(3), daily.getNextRunAt());
+        assertEquals("COMPLETED", daily.getLastStatus());
+        assertNull(scheduledTransferRepository.findById(ending).orElseThrow().getNextRunAt(), "ran out at endsAt");
+        assertEquals(10_000 - 300 - 100, accountService.getBalance(payer));
+        assertEquals(400, accountService.getBalance(bob));
+        assertEquals(0, scheduledTransferRunner.drain());
+    }
+
+    @Test
+    void anOccurrenceTakesEffectOnceHoweverOftenItIsExecuted() {
+        Long payer = testData.createAccount("payer", 10_000);
+        testData.createAccount("bob", 0);
+        Long id = schedule(payer, "bob", "1.00", "MONTHLY", LocalDateTime.now().minusMinutes(1), null).id();
+
+        // Two runners holding the same occurrence, e.g. one whose lease expired mid-batch
+        ScheduledTransfer first = scheduledTransferRepository.findById(id).orElseThrow();
+        ScheduledTransfer second = scheduledTransferRepository.findById(id).orElseThrow();
+        assertEquals(ScheduledTransferService.Outcome.COMPLETED, scheduledTransferService.execute(first));
+        assertEquals(ScheduledTransferService.Outcome.SKIPPED, scheduledTransferService.execute(second));
+
+        assertEquals(1, scheduledTransferRepository.findById(id).orElseThrow().getRunCount());
+        assertEquals(9_900, accountService.getBalance(payer));
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void rejectedOccurrencesAreSkippedAndTheOrderCarriesOn() {
+        Long payer = testData.createAccount("payer", 150);
+        Long bob = testData.createAccount("bob", 0);
+        LocalDateTime start = LocalDateTime.now().minusDays(1).minusMinutes(1).withNano(0);
+        Long id = schedule(payer, "bob", "1.00", "DAILY", start, null).id();
+
+        assertEquals(2, scheduledTransferRunner.drain());
+
+        ScheduledTransfer order = scheduledTransferRepository.findById(id).orElseThrow();
+        assertEquals(2, order.getRunCount());
+        assertEquals("FAILED", order.getLastStatus());
+        assertEquals("Insufficient balance", order.getLastError());
+        assertEquals(start.plusDays(2), order.getNextRunAt());
+        assertEquals(50, accountService.getBalance(payer));
+        assertEquals(100, accountService.getBalance(bob));
+    }
+
+    @Test
+    void rejectionsFailTheOccurrenceWhileDatabaseErrorsAreRetried() {
+        Long payer = testData.createAccount("payer", 10_000);
+        Long bob = testData.createAccount("bob", 0);
+        testData.createAccount("carol", Long.MAX_VALUE);
+        Long toBob = schedule(payer, "bob", "1.00", "DAILY", LocalDateTime.now().minusMinutes(1), null).id();
+        Long toCarol = schedule(payer, "carol", "1.00", "DAILY", LocalDateTime.now().minusMinutes(1), null).id();
+        // Bob closes his account after the order was set up
+        jdbcTemplate.update("delete from account where id = ?", bob);
+
+        ScheduledTransfer rejected = scheduledTransferRepository.findById(toBob).orElseThrow();
+        assertEquals(ScheduledTransferService.Outcome.FAILED, scheduledTransferService.execute(rejected));
+        assertEquals("Recipient not found", scheduledTransferRepository.findById(toBob).orElseThrow().getLastError());
+
+        // Crediting carol overflows the balance column: the database fails, not a business rule
+        ScheduledTransfer failing = scheduledTransferRepository.findById(toCarol).orElseThrow();
+        assertEquals(ScheduledTransferService.Outcome.RETRY, scheduledTransferService.execute(failing));
+        ScheduledTransfer retried = scheduledTransferRepository.findById(toCarol).orElseThrow();
+        assertEquals(0, retried.getRunCount());
+        assertNull(retried.getLastStatus());
+        assertEquals(10_000, accountService.getBalance(payer));
+    }
+
+    @Test
+    void invalidOrdersAreRejected() {
+        Long payer = testData.createAccount("payer", 0);
+        testData.createAccount("bob", 0);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> schedule(payer, "bob", "0", "DAILY", null, null));
+        assertThrows(IllegalArgumentException.class, () -> schedule(payer, "bob", "1.00", "HOURLY", null, null));
+        assertThrows(IllegalArgumentException.class, () -> schedule(payer, "bob", "1.00", "DAILY", now, now.minusDays(1)));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> schedule(payer, "nobody", "1.00", "DAILY", null, null));
+        assertEquals("Recipient not found", e.getMessage());
+        assertEquals(0, scheduledTransferRepository.count());
+    }
+
+    @Test
+    void monthlyOrdersKeepTheirDayOfMonth() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 31, 9, 0);
+        ScheduledTransferService.Frequency monthly = ScheduledTransferService.Frequency.MONTHLY;
+
+        assertEquals(LocalDateTime.of(2024, 2, 29, 9, 0), monthly.occurrence(start, 1));
+        assertEquals(LocalDateTime.of(2024, 3, 31, 9, 0), monthly.occurrence(start, 2));
+        assertEquals(LocalDateTime.of(2024, 4, 30, 9, 0), monthly.occurrence(start, 3));
+    }
+
+    @Test
+    void anAccountsOccurrencesRunInTheOrderTheyFellDue() {
+        Long payer = testData.createAccount("payer", 100_000);
+        testData.createAccount("bob", 0);
+        testData.createAccount("carol", 0);
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        // Interleaved: a at -3d, -2d, -1d, now; b at -2.5d, -1.5d, -0.5d; more than one batch of 4
+        schedule(payer, "bob", "1.00", "DAILY", start, null);
+        schedule(payer, "carol", "2.00", "DAILY", start.plusHours(12), null);
+
+        assertEquals(7, scheduledTransferRunner.drain());
+
+        List<Long> amounts = jdbcTemplate.queryForList(
+                "select amount from transaction where from_account_id = ? order by id", Long.class, payer);
+        assertEquals(List.of(100L, 200L, 100L, 200L, 100L, 200L, 100L), amounts);
+    }
+
+    @Test
+    void leasedPartitionsAreLeftAloneUntilTheLeaseExpires() {
+        Long payer = testData.createAccount("payer", 10_000);
+        testData.createAccount("bob", 0);
+        schedule(payer, "bob", "1.00", "DAILY", LocalDateTime.now().minusMinutes(1), null);
+        int partition = ScheduledTransferService.partitionOf(payer);
+
+        jdbcTemplate.update("update scheduled_transfer_partition set owner = 'other', lease_until = ? where id = ?",
+                LocalDateTime.now().plusMinutes(5), partition);
+        assertEquals(0, scheduledTransferRunner.drain());
+
+        // The other instance died without releasing it
+        jdbcTemplate.update("update scheduled_transfer_partition set lease_until = ? where id = ?",
+                LocalDateTime.now().minusSeconds(1), partition);
+        assertEquals(1, scheduledTransferRunner.drain());
+        assertEquals(9_900, accountService.getBalance(payer));
+        assertNull(partitionRepository.findById(partition).orElseThrow().getOwner(), "released after the batch");
+    }
+
+    @Test
+    void cancelledOrdersStop() {
+        Long payer = testData.createAccount("payer", 10_000);
+        Long other = testData.createAccount("other", 0);
+        testData.createAccount("bob", 0);
+        Long id = schedule(payer, "bob", "1.00", "DAILY", LocalDateTime.now().minusMinutes(1), null).id();
+
+        assertTrue(!scheduledTransferService.cancel(other, id), "only the owner can cancel");
+        assertTrue(scheduledTransferService.cancel(payer, id));
+        assertEquals(0, scheduledTransferRunner.drain());
+        assertEquals(List.of(), scheduledTransferService.list(payer));
+    }
+
+    @Test
+    void concurrentInstancesExecuteEveryOccurrenceExactlyOnce() throws Exception {
+        int payers = 24;
+        int occurrences = 5; // Per order, two orders per payer
+        List<Long> payerIds = new ArrayList<>();
+        Long bob = testData.createAccount("bob", 0);
+        LocalDateTime start = LocalDateTime.now().minusDays(occurrences - 1).minusMinutes(1);
+        for (int i = 0; i < payers; i++) {
+            Long payer = testData.createAccount("payer-" + i, 100_000);
+            payerIds.add(payer);
+            schedule(payer, "bob", "1.00", "DAILY", start, null);
+            schedule(payer, "bob", "0.25", "DAILY", start.minusHours(1), null);
+        }
+
+        // A second instance: same database, its own leases
+        ScheduledTransferRunner otherInstance = new ScheduledTransferRunner(scheduledTransferService,
+                scheduledTransferRepository, partitionRepository, transactionTemplate, false, 1, 4, 1000, 30000);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> drains = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ScheduledTransferRunner runner = i % 2 == 0 ? scheduledTransferRunner : otherInstance;
+            drains.add(threads.submit(runner::drain));
+        }
+        for (Future<Integer> drain : drains) {
+            drain.get();
+        }
+        threads.shutdown();
+        scheduledTransferRunner.drain(); // Partitions a racing worker skipped right at the end
+
+        assertEquals(payers * 2 * occurrences, transactionRepository.count());
+        for (Long payer : payerIds) {
+            assertEquals(100_000 - occurrences * 125, accountService.getBalance(payer));
+            for (ScheduledTransferView view : scheduledTransferService.list(payer)) {
+                assertEquals(occurrences, view.runCount());
+            }
+        }
+        assertEquals(payers * occurrences * 125L, accountService.getBalance(bob));
+    }
+
+    private ScheduledTransferView schedule(Long payer, String to, String amount, String frequency,
+                                           LocalDateTime startAt, LocalDateTime endsAt) {
+        return scheduledTransferService.create(payer,
+                new ScheduledTransferRequest(to, new BigDecimal(amount), frequency, startAt, endsAt));
+    }
+
+}
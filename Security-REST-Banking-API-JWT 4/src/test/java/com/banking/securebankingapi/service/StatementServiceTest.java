@@ -0,0 +1,91 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class StatementServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long alice;
+    private Long bob;
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        alice = testData.createAccount("alice");
+        bob = testData.createAccount("bob");
+
+        // One row per minute, cycling through deposit, outgoing, incoming, self-transfer and an unrelated row
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Long from = switch (i % 5) { case 0 -> null; case 1, 3 -> alice; default -> bob; };
+            Long to = switch (i % 5) { case 0, 2, 3 -> alice; default -> bob; };
+            rows.add(new Object[]{10_000_000L + i, i % 5 == 0 ? "DEPOSIT" : "TRANSFER", 100L + i,
+                    Timestamp.valueOf(START.plusMinutes(i)), from, to});
+        }
+        jdbcTemplate.batchUpdate("insert into transaction (id, type, amount, timestamp, from_account_id, to_account_id)"
+                + " values (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void csvListsEveryRowOfTheAccountOnceInTimeOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementService.writeStatement(alice, START, START.plusYears(1), StatementService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,timestamp,type,amount,from_account_id,to_account_id", lines[0]);
+        assertEquals(ROWS / 5 * 4 + 1, lines.length); // everything except the bob -> bob rows
+        assertEquals("10000000,2024-01-01T00:00,DEPOSIT,1.00,," + alice, lines[1]);
+        for (int i = 2; i < lines.length; i++) {
+            assertTrue(Long.parseLong(lines[i].split(",")[0]) > Long.parseLong(lines[i - 1].split(",")[0]));
+        }
+    }
+
+    @Test
+    void ndjsonHonoursTheRange() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementService.writeStatement(alice, START.plusMinutes(10), START.plusMinutes(20),
+                StatementService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).trim().split("\n");
+        assertEquals(8, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(10_000_010L, first.get("id").asLong());
+        assertTrue(lines[0].contains("\"amount\":1.10"), lines[0]);
+        assertEquals(alice.longValue(), first.get("toAccountId").asLong());
+    }
+}
@@ -0,0 +1,76 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.TransactionPage;
+import com.banking.securebankingapi.dto.TransactionView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
+class TransactionHistoryServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    private Long aliceAccount;
+    private Long bobAccount;
+
+    @BeforeEach
+    void setUp() {
+        testData.clear();
+        aliceAccount = testData.createAccount("alice");
+        bobAccount = testData.createAccount("bob");
+    }
+
+    @Test
+    void pagesThroughSentAndReceivedTransactionsNewestFirst() {
+        for (int i = 0; i < 10; i++) {
+            accountService.deposit(aliceAccount, 1_000);
+            accountService.transfer(aliceAccount, "bob", 100);
+            accountService.transfer(bobAccount, "alice", 50);
+        }
+        accountService.withdraw(aliceAccount, 10);
+
+        List<TransactionView> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = transactionHistoryService.getHistory(aliceAccount, cursor, 7);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(31, seen.size());
+        assertEquals(5, pages);
+        for (int i = 1; i < seen.size(); i++) {
+            TransactionView newer = seen.get(i - 1);
+            TransactionView older = seen.get(i);
+            assertTrue(newer.timestamp().isAfter(older.timestamp())
+                    || (newer.timestamp().equals(older.timestamp()) && newer.id() > older.id()), "not newest first at " + i);
+        }
+
+        TransactionView latest = seen.get(0);
+        assertEquals("WITHDRAW", latest.type());
+        assertEquals(10, latest.amountCents());
+        assertNull(latest.toAccountId());
+    }
+}
@@ -0,0 +1,147 @@
+package com.banking.securebankingapi.service;
+
+import com.banking.securebankingapi.SecureBankingApiApplication;
+import com.banking.securebankingapi.TestData;
+import com.banking.securebankingapi.dto.TransferRequest;
+import com.banking.securebankingapi.entity.User;
+import com.banking.securebankingapi.repository.AccountRepository;
+import com.banking.securebankingapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Own database with the filter on; the scheduled refresh is pushed out so each test refreshes explicitly
+@SpringBootTest(classes = SecureBankingApiApplication.class, properties = {
+        "banking.usernames.filter.enabled=true",
+        "banking.usernames.refresh-interval-ms=3600000",
+        "spring.datasource.url=jdbc:h2:mem:usernames_db;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,TRANSACTION,VALUE;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class UsernameFilterTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        testData.clear();
+        awaitLoaded();
+    }
+
+    @Test
+    void registrationInsertsUserAndAccountTogether() {
+        User alice = userService.register(newUser("alice"));
+
+        assertNotNull(alice.getCreatedAt());
+        assertTrue(accountRepository.findIdByUsername("alice").isPresent());
+        assertTrue(usernameFilter.mightExist("alice"));
+        assertTrue(usernameFilter.mightExist("ALICE "), "MySQL compares case-insensitively and ignores trailing spaces");
+    }
+
+    @Test
+    void takenUsernamesAreRejected() {
+        userService.register(newUser("alice"));
+        assertThrows(UsernameTakenException.class, () -> userService.register(newUser("alice")));
+
+        // Inserted behind the filter's back, so only the unique index catches the second registration
+        User carol = newUser("carol");
+        carol.setRole("ROLE_USER");
+        userRepository.save(carol);
+        assertThrows(UsernameTakenException.class, () -> userService.register(newUser("carol")));
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            User duplicate = newUser("carol");
+            duplicate.setRole("ROLE_USER");
+            userRepository.save(duplicate);
+        });
+
+        assertEquals(2, userRepository.count());
+        assertEquals(1, accountRepository.count());
+    }
+
+    @Test
+    void transfersToUnknownRecipientsAreRejectedWithoutAQuery() {
+        User payer = userService.register(newUser("payer"));
+        userService.register(newUser("bob"));
+        Long payerAccount = accountRepository.findIdByUsername(payer.getUsername()).orElseThrow();
+        accountService.deposit(payerAccount, 10_000);
+        double filteredBefore = meterRegistry.get("banking.usernames.filtered").counter().count();
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> accountService.transfer(payerAccount, "nobody-" + UUID.randomUUID(), 100));
+        assertEquals("Recipient not found", e.getMessage());
+        assertEquals(filteredBefore + 1, meterRegistry.get("banking.usernames.filtered").counter().count());
+
+        accountService.transfer(payerAccount, "bob", 100);
+        var result = accountService.transferBatch(payerAccount, List.of(
+                new TransferRequest("nobody-" + UUID.randomUUID(), BigDecimal.ONE),
+                new TransferRequest("bob", BigDecimal.ONE)));
+        assertEquals("Recipient not found", result.results().get(0).error());
+        assertTrue(result.results().get(1).success());
+        assertEquals(9_800, accountService.getBalance(payerAccount));
+    }
+
+    @Test
+    void refreshPicksUpRegistrationsOfOtherInstances() {
+        String name = "remote-" + UUID.randomUUID();
+        User remote = newUser(name);
+        remote.setRole("ROLE_USER");
+        remote.setCreatedAt(LocalDateTime.now());
+        userRepository.save(remote);
+
+        usernameFilter.refresh();
+        assertTrue(usernameFilter.mightExist(name));
+
+        usernameFilter.rebuild();
+        assertTrue(usernameFilter.mightExist(name));
+    }
+
+    // The filter loads in the background after startup; until then every name might exist
+    private void awaitLoaded() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (usernameFilter.mightExist("never-registered-" + UUID.randomUUID())) {
+            assertFalse(System.nanoTime() > deadline, "username filter was not loaded");
+            Thread.sleep(10);
+        }
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        return user;
+    }
+}
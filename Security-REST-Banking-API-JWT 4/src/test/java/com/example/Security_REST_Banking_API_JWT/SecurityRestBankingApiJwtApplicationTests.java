@@ -1,9 +1,12 @@
 package com.example.Security_REST_Banking_API_JWT;
 
+import com.banking.securebankingapi.SecureBankingApiApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(classes = SecureBankingApiApplication.class)
+@ActiveProfiles("test")
 class SecurityRestBankingApiJwtApplicationTests {
 
 	@Test
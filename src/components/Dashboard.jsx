@@ -12,6 +12,32 @@ api.interceptors.request.use(config => {
   return config;
 });
 
+// Access tokens are short-lived: when one is rejected, trade the refresh token for a new pair and retry once.
+// Parallel failures share a single refresh, because a refresh token can only be used once
+let refreshing = null;
+api.interceptors.response.use(null, async error => {
+  const original = error.config;
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (![401, 403].includes(error.response?.status) || !refreshToken || original._retried) {
+    return Promise.reject(error);
+  }
+  original._retried = true;
+  refreshing = refreshing || axios.post('http://localhost:8080/api/auth/refresh', { refreshToken })
+    .then(({ data }) => {
+      localStorage.setItem('token', data.token);
+      localStorage.setItem('refreshToken', data.refreshToken);
+    })
+    .finally(() => { refreshing = null; });
+  try {
+    await refreshing;
+  } catch {
+    localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    return Promise.reject(error);
+  }
+  return api(original);
+});
+
 function Dashboard() {
   const [balance, setBalance] = useState(0);
   const [depositAmount, setDepositAmount] = useState('');
@@ -115,6 +141,10 @@ function Dashboard() {
               <h2 className="text-3xl font-bold text-white">Banking Dashboard</h2>
               <button
                 onClick={() => {
+                  // Revoke both tokens on the server; leave locally even if that fails
+                  axios.post('http://localhost:8080/api/auth/logout',
+                    { refreshToken: localStorage.getItem('refreshToken') },
+                    { headers: { Authorization: `Bearer ${localStorage.getItem('token')}` } }).catch(() => {});
                   localStorage.removeItem('token');
                   localStorage.removeItem('refreshToken');
                   navigate('/');
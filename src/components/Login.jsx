@@ -22,6 +22,7 @@ function Login() {
       setError('');
       const response = await axios.post('http://localhost:8080/api/auth/login', { username, password });
       localStorage.setItem('token', response.data.token);
+      localStorage.setItem('refreshToken', response.data.refreshToken);
       navigate('/dashboard');
     } catch (error) {
       console.error(error);